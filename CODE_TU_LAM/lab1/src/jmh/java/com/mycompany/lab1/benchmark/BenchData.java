@@ -0,0 +1,106 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.benchmark;
+
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Du lieu gia cho cac benchmark JMH: moi benchmark 1 thu muc tam rieng (ko dung data/ that),
+ * tat System.out vi tang nghiep vu in ra moi lan them/nap.
+ * Ma KH that chi co 30k (C/G/K + 4 so), o day dung "C" + so de tao toi 1M KH.
+ */
+final class BenchData {
+	static final int CUSTOMERS_FOR_ORDERS = 1000;
+	static final int MENUS_FOR_ORDERS = 10;
+	static final int START_DAY = 20000; // 10/10/2024
+
+	private BenchData() {
+	}
+
+	static void quiet() {
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+	}
+
+	static File tempDir(String name) {
+		try {
+			return Files.createTempDirectory("jmh-" + name + "-").toFile();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static void delete(File dir) {
+		if (dir == null) return;
+		try (Stream<Path> paths = Files.walk(dir.toPath())) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+		catch (IOException e) {
+			// thu muc tam, bo qua
+		}
+	}
+
+	static String customerId(int i) {
+		return "C" + i;
+	}
+
+	static List<Customer> customers(int n) {
+		List<Customer> list = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			list.add(new Customer(customerId(i), "Nguyen Van " + i, "09" + String.format("%08d", i % 100_000_000), "kh" + i + "@mail.vn"));
+		}
+		return list;
+	}
+
+	static String menuId(int i) {
+		return i < 1000 ? String.format("PW%03d", i) : "M" + i; // PWxxx vao mang, con lai vao HashMap
+	}
+
+	// file thuc don n dong, cung dang data/FeastMenu.csv: id,ten,gia,nguyen lieu
+	static File menuCsv(File dir, int n) {
+		File file = new File(dir, "menu.csv");
+		StringBuilder sb = new StringBuilder(n * 64);
+		for (int i = 0; i < n; i++) {
+			sb.append(menuId(i)).append(",Tiec so ").append(i).append(',').append(1_000_000 + (i % 100) * 50_000)
+					.append(",Mon ").append(i).append(", mon phu, trang mieng\n");
+		}
+		try {
+			Files.writeString(file.toPath(), sb, StandardCharsets.UTF_8);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return file;
+	}
+
+	// don thu i: (KH, menu, ngay) ko trung nhau
+	static Order order(int i) {
+		Order o = new Order();
+		o.setCustomerId(customerId(i % CUSTOMERS_FOR_ORDERS));
+		o.setMenuId(menuId((i / CUSTOMERS_FOR_ORDERS) % MENUS_FOR_ORDERS));
+		o.setNumOfTables(1 + i % 5);
+		o.setEpochDay(START_DAY + i / (CUSTOMERS_FOR_ORDERS * MENUS_FOR_ORDERS));
+		return o;
+	}
+
+	static List<Order> orders(int from, int to) {
+		List<Order> list = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) list.add(order(i));
+		return list;
+	}
+}
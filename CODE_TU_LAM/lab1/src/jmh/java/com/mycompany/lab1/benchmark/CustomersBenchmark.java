@@ -0,0 +1,81 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.benchmark;
+
+import com.mycompany.lab1.bussiness.Customers;
+import com.mycompany.lab1.model.Customer;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Customers: searchById (index ma KH), filterByName (index trigram), addNew (index + ghi journal).
+ * Moi iteration nap lai danh sach size KH de addNew ko lam danh sach lon dan qua cac lan do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CustomersBenchmark {
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int size;
+
+	private File dir;
+	private Customers customers;
+	private String[] ids;
+	private int next;
+	private int added;
+
+	@Setup(Level.Trial)
+	public void data() {
+		BenchData.quiet();
+		ids = new String[size];
+		for (int i = 0; i < size; i++) ids[i] = BenchData.customerId(i).toLowerCase(); // tim ko phan biet hoa thuong
+	}
+
+	@Setup(Level.Iteration)
+	public void load() {
+		dir = BenchData.tempDir("customers");
+		customers = new Customers(new File(dir, "customers.dat").getPath());
+		customers.addBatch(BenchData.customers(size));
+		added = size;
+	}
+
+	@TearDown(Level.Iteration)
+	public void clean() {
+		BenchData.delete(dir);
+	}
+
+	@Benchmark
+	public Customer searchById() {
+		return customers.searchById(ids[next++ % size]);
+	}
+
+	@Benchmark
+	public List<Customer> filterByName() {
+		return customers.filterByName("van " + (next++ % size), 20);
+	}
+
+	@Benchmark
+	public void addNew() {
+		int i = added++;
+		customers.addNew(new Customer(BenchData.customerId(i), "Tran Thi " + i, "0912345678", "moi" + i + "@mail.vn"));
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.benchmark;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main cua benchmarks.jar: giong org.openjdk.jmh.Main (nhan moi tham so JMH) nhung mac dinh
+ *   -prof gc                                     (so byte cap phat / thao tac, so lan GC)
+ *   -rf json -rff jmh-results/<thoi gian>.json   (moi lan chay 1 file, de so sanh giua cac ban build)
+ * Truyen -prof / -rf / -rff thi dung gia tri truyen vao.
+ */
+public class JmhRunner {
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams() || cmd.shouldListProfilers()
+				|| cmd.shouldListResultFormats()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+		if (cmd.getProfilers().isEmpty()) options.addProfiler(GCProfiler.class);
+		ResultFormatType format = cmd.getResultFormat().orElse(ResultFormatType.JSON);
+		options.resultFormat(format);
+		if (!cmd.getResult().hasValue()) {
+			File dir = new File("jmh-results");
+			dir.mkdirs();
+			String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+			options.result(new File(dir, stamp + "." + format.toString().toLowerCase()).getPath());
+		}
+		new Runner(options.build()).run();
+	}
+}
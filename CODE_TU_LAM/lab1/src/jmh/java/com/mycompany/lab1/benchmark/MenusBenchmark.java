@@ -0,0 +1,71 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.benchmark;
+
+import com.mycompany.lab1.bussiness.FeastMenus;
+import com.mycompany.lab1.model.SetMenu;
+import com.mycompany.lab1.tools.FileUtils;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FeastMenus.getMenuById (ma PWxxx vao mang, ma khac vao HashMap) va FileUtils.readMenus
+ * (doc file CSV size dong qua CsvParser). readMenus tinh theo micro giay/lan doc ca file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MenusBenchmark {
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int size;
+
+	private File dir;
+	private String csv;
+	private FeastMenus menus;
+	private String[] ids;
+	private int next;
+
+	@Setup
+	public void data() {
+		BenchData.quiet();
+		dir = BenchData.tempDir("menus");
+		csv = BenchData.menuCsv(dir, size).getPath();
+		menus = new FeastMenus(csv);
+		ids = new String[Math.min(size, 1 << 16)];
+		for (int i = 0; i < ids.length; i++) ids[i] = BenchData.menuId(i * (size / ids.length));
+	}
+
+	@TearDown
+	public void clean() {
+		BenchData.delete(dir);
+	}
+
+	@Benchmark
+	public SetMenu getMenuById() {
+		return menus.getMenuById(ids[next++ % ids.length]);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public List<SetMenu> readMenus() {
+		return FileUtils.readMenus(csv);
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.benchmark;
+
+import com.mycompany.lab1.model.Order;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Order.hashCode / equals (dung trong HashMap/HashSet, check trung).
+ * Duyet qua size don khac nhau: size lon thi don ko nam trong cache CPU, giong luc chay that.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class OrderEqualityBenchmark {
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int size;
+
+	private Order[] orders;
+	private Order[] copies; // cung noi dung, khac doi tuong
+	private int next;
+
+	@Setup
+	public void data() {
+		orders = new Order[size];
+		copies = new Order[size];
+		for (int i = 0; i < size; i++) {
+			orders[i] = order(i);
+			copies[i] = order(i);
+		}
+	}
+
+	private static Order order(int i) {
+		Order o = BenchData.order(i);
+		o.setOrderCode("BENCH" + i);
+		o.setTotalVnd(1_000_000L * o.getNumOfTables());
+		return o;
+	}
+
+	@Benchmark
+	public int hashCodeOrder() {
+		return orders[next++ % size].hashCode();
+	}
+
+	@Benchmark
+	public boolean equalsSame() {
+		int i = next++ % size;
+		return orders[i].equals(copies[i]);
+	}
+
+	@Benchmark
+	public boolean equalsDifferent() {
+		int i = next++ % size;
+		return orders[i].equals(copies[(i + 1) % size]);
+	}
+}
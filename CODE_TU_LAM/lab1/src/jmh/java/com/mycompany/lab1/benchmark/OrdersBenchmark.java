@@ -0,0 +1,115 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.benchmark;
+
+import com.mycompany.lab1.bussiness.Customers;
+import com.mycompany.lab1.bussiness.FeastMenus;
+import com.mycompany.lab1.bussiness.Orders;
+import com.mycompany.lab1.model.Order;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Orders: addNew (kiem tra KH/menu/trung/so ban, tinh tien, sinh ma, index, journal) va isDuplicate.
+ * size don co san, 1000 KH, 10 menu; so ban/ngay dat rat lon de ko bi het ban giua chung.
+ * isDuplicate doc tren 1 bo don nap 1 lan (da luu xong, ko con ghi nen chay trong luc do),
+ * addNew them vao bo don nap lai moi iteration (Fresh) de danh sach ko lon dan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dfeast.tablesPerDay=1000000000"})
+@State(Scope.Benchmark)
+public class OrdersBenchmark {
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int size;
+
+	private File dir;
+	private Customers customers;
+	private FeastMenus menus;
+	private Orders orders;
+	private Order[] existing;
+	private Order[] missing;
+	private int next;
+
+	@State(Scope.Benchmark)
+	public static class Fresh {
+		private File dir;
+		private Orders orders;
+		private int added;
+
+		@Setup(Level.Iteration)
+		public void load(OrdersBenchmark b) {
+			dir = BenchData.tempDir("orders-it"); // file don moi cho moi iteration
+			orders = b.load(dir);
+			added = b.size;
+		}
+
+		@TearDown(Level.Iteration)
+		public void clean() {
+			BenchData.delete(dir);
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void data() {
+		BenchData.quiet();
+		dir = BenchData.tempDir("orders");
+		customers = new Customers(new File(dir, "customers.dat").getPath());
+		customers.addBatch(BenchData.customers(BenchData.CUSTOMERS_FOR_ORDERS));
+		menus = new FeastMenus(BenchData.menuCsv(dir, BenchData.MENUS_FOR_ORDERS).getPath());
+
+		// don giong don da dat (trung) va don chua dat, tao san de ko do thoi gian tao Order
+		existing = new Order[Math.min(size, 1 << 16)];
+		missing = new Order[existing.length];
+		for (int i = 0; i < existing.length; i++) {
+			existing[i] = BenchData.order(i * (size / existing.length));
+			missing[i] = BenchData.order(size + i);
+		}
+		orders = load(dir);
+	}
+
+	// size don dau tien, cho ghi xong snapshot de ko con thread ghi nen
+	Orders load(File into) {
+		Orders o = new Orders(new File(into, "orders.dat").getPath(), Integer.MAX_VALUE);
+		o.addBatch(BenchData.orders(0, size), customers, menus);
+		o.saveToFileAsync().join();
+		return o;
+	}
+
+	@TearDown(Level.Trial)
+	public void clean() {
+		BenchData.delete(dir);
+	}
+
+	@Benchmark
+	public void addNew(Fresh fresh) {
+		fresh.orders.addNew(BenchData.order(fresh.added++), customers, menus);
+	}
+
+	@Benchmark
+	public boolean isDuplicateHit() {
+		return orders.isDuplicate(existing[next++ % existing.length]);
+	}
+
+	@Benchmark
+	public boolean isDuplicateMiss() {
+		return orders.isDuplicate(missing[next++ % missing.length]);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.benchmark;
+
+import com.mycompany.lab1.bussiness.Customers;
+import com.mycompany.lab1.bussiness.FeastMenus;
+import com.mycompany.lab1.bussiness.Orders;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Luu / nap file: saveToFile (chup + ghi snapshot, cho ghi xong) va readFromFile
+ * (doc snapshot + journal, dung lai cac index) cho size KH va size don.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dfeast.tablesPerDay=1000000000"})
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int size;
+
+	private File dir;
+	private Customers customers;
+	private Orders orders;
+
+	@Setup
+	public void data() {
+		BenchData.quiet();
+		dir = BenchData.tempDir("persistence");
+		customers = new Customers(new File(dir, "customers.dat").getPath());
+		customers.addBatch(BenchData.customers(Math.max(size, BenchData.CUSTOMERS_FOR_ORDERS)));
+		FeastMenus menus = new FeastMenus(BenchData.menuCsv(dir, BenchData.MENUS_FOR_ORDERS).getPath());
+		orders = new Orders(new File(dir, "orders.dat").getPath(), Integer.MAX_VALUE);
+		orders.addBatch(BenchData.orders(0, size), customers, menus);
+		// ghi snapshot 1 lan de readFromFile doc file day du, journal rong
+		customers.saveToFileAsync().join();
+		orders.saveToFileAsync().join();
+	}
+
+	@TearDown
+	public void clean() {
+		BenchData.delete(dir);
+	}
+
+	@Benchmark
+	public boolean saveCustomers() {
+		return customers.saveToFileAsync().join();
+	}
+
+	@Benchmark
+	public Customers readCustomers() {
+		customers.readFromFile();
+		return customers;
+	}
+
+	@Benchmark
+	public boolean saveOrders() {
+		return orders.saveToFileAsync().join();
+	}
+
+	@Benchmark
+	public Orders readOrders() {
+		orders.readFromFile();
+		return orders;
+	}
+}
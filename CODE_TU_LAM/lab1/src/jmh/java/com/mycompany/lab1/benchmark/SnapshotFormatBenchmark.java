@@ -0,0 +1,90 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.benchmark;
+
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.tools.Codecs;
+import com.mycompany.lab1.tools.Compression;
+import com.mycompany.lab1.tools.FileUtils;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * So sanh cac kieu nen file orders.dat: thoi gian ghi / doc ca file.
+ * Kich thuoc file in ra System.err 1 lan moi bo tham so (JMH ko do kich thuoc).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SnapshotFormatBenchmark {
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int size;
+
+	@Param({"NONE", "DEFLATE_FAST", "DEFLATE"})
+	public Compression compression;
+
+	private File dir;
+	private String written; // file ghi moi lan do
+	private String saved;   // file ghi san de doc
+	private List<Order> orders;
+
+	@Setup
+	public void data() {
+		BenchData.quiet();
+		dir = BenchData.tempDir("snapshot");
+		orders = generate(size);
+		written = new File(dir, "written.dat").getPath();
+		saved = new File(dir, "saved.dat").getPath();
+		FileUtils.writeToFile(orders, saved, Codecs.ORDER, compression);
+		System.err.printf("%s, %d don: %d KB%n", compression, size, new File(saved).length() / 1024);
+	}
+
+	@TearDown
+	public void clean() {
+		BenchData.delete(dir);
+	}
+
+	// du lieu giong that: it KH, it menu, ngay trong 2 nam
+	private static List<Order> generate(int n) {
+		Random rnd = new Random(42);
+		List<Order> list = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			String customerId = String.format("C%04d", rnd.nextInt(5000));
+			String menuId = String.format("PW%03d", 1 + rnd.nextInt(8));
+			int tables = 1 + rnd.nextInt(50);
+			list.add(new Order(String.format("%014d", 20260000000000L + i), customerId, menuId, tables,
+					BenchData.START_DAY + rnd.nextInt(730), tables * 2_500_000L));
+		}
+		return list;
+	}
+
+	@Benchmark
+	public boolean write() {
+		return FileUtils.writeToFile(orders, written, Codecs.ORDER, compression);
+	}
+
+	@Benchmark
+	public List<Order> read() {
+		return FileUtils.readFromFile(saved, Codecs.ORDER);
+	}
+}
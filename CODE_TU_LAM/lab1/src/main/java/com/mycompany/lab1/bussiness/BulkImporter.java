@@ -0,0 +1,257 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.tools.Acceptable;
+import com.mycompany.lab1.tools.Dates;
+import com.mycompany.lab1.tools.Validator;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Nhap hang loat KH / don tu file CSV (chuyen du lieu tu he thong doi tac).
+ *   KH:  id,name,phone,email
+ *   Don: customerId,menuId,tables,date (yyyy-MM-dd hoac dd/MM/yyyy)
+ * Doc file theo tung lo BATCH dong (ko nap ca file):
+ *   1. kiem tra tung dong song song tren ForkJoinPool (dinh dang theo Validator)
+ *   2. them ca lo vao Customers/Orders theo dung thu tu file (check trung, KH/menu ton tai, so ban)
+ * Dong loi ghi ra file <ten file>.rejects.csv: so dong, ly do, dong goc.
+ * Dong dau la tieu de (id,... / customerId,...) thi bo qua.
+ */
+public class BulkImporter {
+	private static final int BATCH = 8192;
+
+	private final Customers customers;
+	private final Orders orders;
+	private final FeastMenus menus;
+
+	public BulkImporter(Customers customers, Orders orders, FeastMenus menus) {
+		this.customers = customers;
+		this.orders = orders;
+		this.menus = menus;
+	}
+
+	// ket qua 1 lan nhap
+	public static class Report {
+		private int total;
+		private int imported;
+		private int rejected;
+		private long millis;
+		private String rejectsPath;
+
+		public int getImported() {
+			return imported;
+		}
+
+		public int getRejected() {
+			return rejected;
+		}
+
+		@Override
+		public String toString() {
+			String s = String.format("Nhap %d/%d dong trong %d ms (%.0f dong/s)", imported, total, millis,
+					millis == 0 ? 0.0 : total * 1000.0 / millis);
+			return rejected == 0 ? s : s + ", " + rejected + " dong loi ghi vao " + rejectsPath;
+		}
+	}
+
+	// kiem tra + tao doi tuong tu cac cot; sai thi IllegalArgumentException (ly do)
+	private interface Parser<T> {
+		T parse(List<String> fields);
+	}
+
+	// them 1 lo, tra ve ly do loi tung phan tu (null = ok)
+	private interface Inserter<T> {
+		String[] insert(List<T> batch);
+	}
+
+	public Report importCustomers(String csvPath) throws IOException {
+		return run(csvPath, "id", BulkImporter::parseCustomer, customers::addBatch);
+	}
+
+	public Report importOrders(String csvPath) throws IOException {
+		return run(csvPath, "customerid", BulkImporter::parseOrder, batch -> orders.addBatch(batch, customers, menus));
+	}
+
+	// id,name,phone,email -> Customer; sai thi IllegalArgumentException (ly do)
+	public static Customer parseCustomer(List<String> f) {
+		need(f, 4);
+		Customer c = new Customer(f.get(0), f.get(1), f.get(2), f.get(3));
+		String reason = Validator.validate(c);
+		if (reason != null) throw new IllegalArgumentException(reason);
+		return c;
+	}
+
+	// customerId,menuId,tables,date -> Order (chua tinh tien, chua co ma)
+	public static Order parseOrder(List<String> f) {
+		need(f, 4);
+		Order o = new Order();
+		o.setCustomerId(check(f.get(0), Acceptable.CUS_ID_VALID, "ma KH"));
+		o.setMenuId(check(f.get(1), Acceptable.MENU_ID_VALID, "ma thuc don"));
+		o.setNumOfTables(Integer.parseInt(check(f.get(2), Acceptable.INTEGER_VALID, "so ban")));
+		o.setEpochDay(parseDate(f.get(3)));
+		return o;
+	}
+
+	private <T> Report run(String csvPath, String header, Parser<T> parser, Inserter<T> inserter) throws IOException {
+		long start = System.currentTimeMillis();
+		Report report = new Report();
+		report.rejectsPath = csvPath + ".rejects.csv";
+		Files.deleteIfExists(Paths.get(report.rejectsPath)); // file loi cua lan nhap truoc
+		BufferedWriter rejects = null;
+
+		try (BufferedReader in = Files.newBufferedReader(Paths.get(csvPath), StandardCharsets.UTF_8)) {
+			List<String> lines = new ArrayList<>(BATCH);
+			int firstLine = 1;
+			int lineNo = 0;
+			String line;
+			while (true) {
+				line = in.readLine();
+				if (line != null) {
+					lineNo++;
+					if (lineNo == 1) {
+						if (line.startsWith("\uFEFF")) line = line.substring(1); // BOM
+						if (line.regionMatches(true, 0, header + ",", 0, header.length() + 1)) {
+							firstLine = 2;
+							continue;
+						}
+					}
+					lines.add(line);
+					if (lines.size() < BATCH) continue;
+				}
+				if (!lines.isEmpty()) {
+					rejects = importBatch(lines, firstLine, parser, inserter, report, rejects);
+					firstLine += lines.size();
+					lines.clear();
+				}
+				if (line == null) break;
+			}
+		}
+		finally {
+			if (rejects != null) rejects.close();
+		}
+		report.millis = System.currentTimeMillis() - start;
+		return report;
+	}
+
+	private <T> BufferedWriter importBatch(List<String> lines, int firstLine, Parser<T> parser, Inserter<T> inserter,
+			Report report, BufferedWriter rejects) throws IOException {
+		int n = lines.size();
+		Object[] items = new Object[n];
+		String[] errors = new String[n];
+
+		// 1. kiem tra dinh dang song song (ko dung toi du lieu dung chung)
+		IntStream.range(0, n).parallel().forEach(i -> {
+			String line = lines.get(i);
+			if (line.isBlank()) {
+				errors[i] = "dong trong";
+				return;
+			}
+			try {
+				items[i] = parser.parse(split(line));
+			}
+			catch (IllegalArgumentException e) {
+				errors[i] = e.getMessage();
+			}
+		});
+
+		// 2. them cac dong hop le theo thu tu file
+		List<T> valid = new ArrayList<>(n);
+		int[] rowOf = new int[n];
+		for (int i = 0; i < n; i++) {
+			if (items[i] != null) {
+				rowOf[valid.size()] = i;
+				@SuppressWarnings("unchecked")
+				T item = (T) items[i];
+				valid.add(item);
+			}
+		}
+		String[] insertErrors = inserter.insert(valid);
+		for (int k = 0; k < insertErrors.length; k++) {
+			if (insertErrors[k] != null) errors[rowOf[k]] = insertErrors[k];
+		}
+
+		// 3. ghi dong loi
+		for (int i = 0; i < n; i++) {
+			report.total++;
+			if (errors[i] == null) {
+				report.imported++;
+				continue;
+			}
+			if (lines.get(i).isBlank()) {
+				report.total--; // dong trong ko tinh
+				continue;
+			}
+			report.rejected++;
+			if (rejects == null) {
+				rejects = Files.newBufferedWriter(Paths.get(report.rejectsPath), StandardCharsets.UTF_8);
+				rejects.write("line,reason,data");
+				rejects.newLine();
+			}
+			rejects.write((firstLine + i) + "," + quote(errors[i]) + "," + quote(lines.get(i)));
+			rejects.newLine();
+		}
+		return rejects;
+	}
+
+	// tach 1 dong CSV: "..." co the chua dau phay, "" la 1 dau ngoac kep
+	public static List<String> split(String line) {
+		List<String> fields = new ArrayList<>(4);
+		StringBuilder sb = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c != '"') sb.append(c);
+				else if (i + 1 < line.length() && line.charAt(i + 1) == '"') sb.append(line.charAt(++i));
+				else quoted = false;
+			}
+			else if (c == '"' && sb.length() == 0) quoted = true;
+			else if (c == ',') {
+				fields.add(sb.toString().trim());
+				sb.setLength(0);
+			}
+			else sb.append(c);
+		}
+		if (quoted) throw new IllegalArgumentException("thieu dau \" dong truong");
+		fields.add(sb.toString().trim());
+		return fields;
+	}
+
+	private static void need(List<String> fields, int count) {
+		if (fields.size() != count)
+			throw new IllegalArgumentException("can " + count + " cot, co " + fields.size());
+	}
+
+	private static String check(String value, String pattern, String name) {
+		if (!Validator.matches(value, pattern)) throw new IllegalArgumentException(Validator.invalid(name, value));
+		return value;
+	}
+
+	private static int parseDate(String text) {
+		try {
+			if (text.contains("/")) return Dates.toEpochDay(LocalDate.parse(text, Dates.DISPLAY));
+			return Dates.toEpochDay(LocalDate.parse(text, Dates.ISO));
+		}
+		catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("ngay khong hop le '" + text + "'");
+		}
+	}
+
+	private static String quote(String s) {
+		return "\"" + s.replace("\"", "\"\"") + "\"";
+	}
+}
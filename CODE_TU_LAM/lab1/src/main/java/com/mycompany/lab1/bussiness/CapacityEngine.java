@@ -0,0 +1,106 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.tools.Dates;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * So ban con trong theo tung ngay to chuc, chong dat qua so ban nha hang co.
+ * Moi ngay 1 AtomicInteger (so ban da dat): giu cho bang compare-and-set,
+ * 2 thread dat cung ngay thi 1 thread thu lai, ngay khac nhau ko chan nhau (ko co khoa chung).
+ * Ngay tinh bang epoch day (Dates). So ban/ngay: -Dfeast.tablesPerDay (mac dinh 100).
+ */
+public class CapacityEngine {
+	public static final int MAX_RANGE_DAYS = 3660; // ~10 nam
+	private final int tablesPerDay;
+	private final ConcurrentHashMap<Integer, AtomicInteger> booked = new ConcurrentHashMap<>();
+
+	public CapacityEngine() {
+		this(Integer.getInteger("feast.tablesPerDay", 100));
+	}
+
+	public CapacityEngine(int tablesPerDay) {
+		this.tablesPerDay = tablesPerDay;
+	}
+
+	public int getTablesPerDay() {
+		return tablesPerDay;
+	}
+
+	// giu tables ban cho ngay day, false neu ko du (ko thay doi gi)
+	public boolean reserve(int day, int tables) {
+		if (tables <= 0) return tables == 0;
+		AtomicInteger counter = counter(day);
+		while (true) {
+			int used = counter.get();
+			if (used + tables > tablesPerDay) return false;
+			if (counter.compareAndSet(used, used + tables)) return true;
+		}
+	}
+
+	// tra lai ban (huy don, doi ngay/so ban)
+	public void release(int day, int tables) {
+		if (tables <= 0) return;
+		AtomicInteger counter = booked.get(day);
+		if (counter != null) counter.addAndGet(-tables);
+	}
+
+	// Doi don tu (oldDay, oldTables) sang (newDay, newTables): giu cho moi truoc, duoc roi moi tra cho cu.
+	// false = ko du ban, giu nguyen nhu cu
+	public boolean move(int oldDay, int oldTables, int newDay, int newTables) {
+		if (oldDay == newDay) {
+			if (newTables > oldTables) return reserve(newDay, newTables - oldTables);
+			release(oldDay, oldTables - newTables);
+			return true;
+		}
+		if (!reserve(newDay, newTables)) return false;
+		release(oldDay, oldTables);
+		return true;
+	}
+
+	// cong ban da dat khi nap du lieu cu, ko kiem tra gioi han
+	public void add(int day, int tables) {
+		if (tables > 0) counter(day).addAndGet(tables);
+	}
+
+	public void clear() {
+		booked.clear();
+	}
+
+	// so ban con trong 1 ngay (co the am neu du lieu cu da vuot)
+	public int remaining(int day) {
+		AtomicInteger counter = booked.get(day);
+		return tablesPerDay - (counter == null ? 0 : counter.get());
+	}
+
+	public int remaining(LocalDate date) {
+		return remaining(Dates.toEpochDay(date));
+	}
+
+	// so ban con trong tung ngay tu from den to (tinh ca 2 dau), O(so ngay).
+	// Thieu ngay hoac khoang dai hon MAX_RANGE_DAYS thi IllegalArgumentException.
+	public int[] remaining(LocalDate from, LocalDate to) {
+		if (from == null || to == null) throw new IllegalArgumentException("Thieu ngay bat dau/ket thuc");
+		int start = Dates.toEpochDay(from);
+		int end = Dates.toEpochDay(to);
+		if (start == Dates.NO_DATE || end == Dates.NO_DATE) throw new IllegalArgumentException("Ngay khong hop le");
+		if (end < start) return new int[0];
+		long days = (long) end - start + 1;
+		if (days > MAX_RANGE_DAYS) throw new IllegalArgumentException("Chi xem duoc toi da " + MAX_RANGE_DAYS + " ngay");
+		int[] result = new int[(int) days];
+		for (int d = start; d <= end; d++) {
+			result[d - start] = remaining(d);
+		}
+		return result;
+	}
+
+	private AtomicInteger counter(int day) {
+		AtomicInteger counter = booked.get(day); // thuong da co, ko tao lambda
+		return counter != null ? counter : booked.computeIfAbsent(day, d -> new AtomicInteger());
+	}
+}
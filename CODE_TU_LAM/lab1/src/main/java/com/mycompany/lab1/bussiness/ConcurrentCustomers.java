@@ -0,0 +1,170 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Customer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Customers dung chung cho nhieu thread (vd: nhieu man hinh dat tiec, HTTP server).
+ * - searchById: doc thang ConcurrentHashMap, ko khoa
+ * - them/sua: khoa ghi, cap nhat Customers ben trong (list, index ten, journal) roi moi den map
+ * - tim theo ten, chup danh sach: khoa doc, nhieu thread doc cung luc duoc
+ * showAll/luu file duyet tren ban chup (snapshot), ko bi ConcurrentModificationException.
+ * Customer tra ve ko duoc sua truc tiep, muon sua thi tao Customer moi roi goi update.
+ */
+public class ConcurrentCustomers implements Workable<Customer>, Iterable<Customer> {
+	private final Customers customers;
+	private final ConcurrentHashMap<String, Customer> byId = new ConcurrentHashMap<>();
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public ConcurrentCustomers() {
+		this(new Customers());
+	}
+
+	public ConcurrentCustomers(String pathFile) {
+		this(new Customers(pathFile));
+	}
+
+	// boc 1 doi tuong da co (vd: da nap file); sau do chi dung qua lop boc nay
+	public ConcurrentCustomers(Customers customers) {
+		this.customers = customers;
+		for (Customer c : customers) byId.put(key(c.getId()), c);
+	}
+
+	@Override
+	public void addNew(Customer x) {
+		lock.writeLock().lock();
+		try {
+			customers.addNew(x);
+			// chi dua vao map khi them thanh cong (trung ma thi Customers da bao loi)
+			if (customers.searchById(x.getId()) == x) byId.put(key(x.getId()), x);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void update(Customer x) {
+		lock.writeLock().lock();
+		try {
+			customers.update(x);
+			if (customers.searchById(x.getId()) == x) byId.put(key(x.getId()), x);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// ban ko in gi cua addNew/update (HTTP server): tra ve ly do loi, null = ok
+	public String tryAddNew(Customer x) {
+		lock.writeLock().lock();
+		try {
+			String error = customers.tryAddNew(x);
+			if (error == null) byId.put(key(x.getId()), x);
+			return error;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public String tryUpdate(Customer x) {
+		lock.writeLock().lock();
+		try {
+			String error = customers.tryUpdate(x);
+			if (error == null) byId.put(key(x.getId()), x);
+			return error;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Customer searchById(String id) {
+		return id == null ? null : byId.get(key(id));
+	}
+
+	// so KH (ko khoa)
+	public int size() {
+		return byId.size();
+	}
+
+	public List<Customer> filterByName(String name) {
+		return filterByName(name, Integer.MAX_VALUE);
+	}
+
+	public List<Customer> filterByName(String name, int limit) {
+		lock.readLock().lock();
+		try {
+			return customers.filterByName(name, limit);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// ban chup danh sach theo thu tu them, duyet/in/luu thoai mai
+	public List<Customer> snapshot() {
+		lock.readLock().lock();
+		try {
+			return new ArrayList<>(customers);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Iterator<Customer> iterator() {
+		return snapshot().iterator();
+	}
+
+	@Override
+	public void showAll() {
+		customers.showAll(snapshot()); // in ngoai khoa
+	}
+
+	public void readFromFile() {
+		lock.writeLock().lock();
+		try {
+			customers.readFromFile();
+			byId.clear();
+			for (Customer c : customers) byId.put(key(c.getId()), c);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// chup du lieu trong khoa doc, ghi file o thread nen
+	public CompletableFuture<Boolean> saveToFileAsync() {
+		lock.readLock().lock();
+		try {
+			return customers.saveToFileAsync();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public void saveToFile() {
+		if (saveToFileAsync().join()) {
+			System.out.println("Da luu file thanh cong!");
+		}
+	}
+
+	private static String key(String id) {
+		return id.toUpperCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,228 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.tools.TableRenderer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Orders dung chung cho nhieu thread, cung cach voi ConcurrentCustomers:
+ * searchById doc ConcurrentHashMap ko khoa; them/sua/huy giu khoa ghi;
+ * cac index phu (theo KH, menu, ngay, check trung) doc trong khoa doc.
+ * Dat tiec giu ban (CAS tren CapacityEngine) truoc khi lay khoa ghi: ngay da het ban
+ * bi tu choi ngay, ko phai xep hang cho khoa; bi tu choi trong khoa thi tra lai ban.
+ * Order tra ve ko duoc sua truc tiep, muon sua thi tao Order moi roi goi update.
+ */
+public class ConcurrentOrders implements Workable<Order>, Iterable<Order> {
+	private final Orders orders;
+	private final ConcurrentHashMap<String, Order> byCode = new ConcurrentHashMap<>();
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public ConcurrentOrders() {
+		this(new Orders());
+	}
+
+	public ConcurrentOrders(int maxInMemory) {
+		this(new Orders(maxInMemory));
+	}
+
+	// boc 1 doi tuong da co (vd: da nap file); sau do chi dung qua lop boc nay
+	public ConcurrentOrders(Orders orders) {
+		this.orders = orders;
+		for (Order o : orders) byCode.put(key(o.getOrderCode()), o);
+	}
+
+	// Dat tiec: giu ban ngoai khoa, kiem tra trung, tinh tien, sinh ma trong khoa ghi.
+	// listKH nen la ConcurrentCustomers (searchById ko khoa).
+	public void addNew(Order order, Workable<Customer> listKH, FeastMenus listMenu) {
+		String error = tryAddNew(order, listKH, listMenu);
+		if (error != null) {
+			System.out.println("Loi: " + error);
+			return;
+		}
+		System.out.println("Dat tiec thanh cong!");
+	}
+
+	// ban ko in gi (HTTP server): tra ve ly do loi (Orders.NO_CUSTOMER, ...), null = da dat
+	public String tryAddNew(Order order, Workable<Customer> listKH, FeastMenus listMenu) {
+		// KH/menu sai thi bao truoc khi dung toi so ban (doc ko khoa)
+		if (listKH.searchById(order.getCustomerId()) == null) return Orders.NO_CUSTOMER;
+		if (listMenu.getMenuById(order.getMenuId()) == null) return Orders.NO_MENU;
+
+		int day = order.getEpochDay();
+		int tables = order.getNumOfTables();
+		if (!orders.reserve(order)) return orders.noCapacity(day);
+
+		String error;
+		lock.writeLock().lock();
+		try {
+			error = orders.tryAddNew(order, listKH, listMenu, true);
+			if (error == null) byCode.put(key(order.getOrderCode()), order);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+		if (error != null) orders.release(day, tables);
+		return error;
+	}
+
+	@Override
+	public void addNew(Order x) {
+		write(() -> orders.addNew(x), x);
+	}
+
+	@Override
+	public void update(Order x) {
+		write(() -> orders.update(x), x);
+	}
+
+	// chay thao tac ghi, thanh cong (order nam trong Orders) thi dua vao map
+	private void write(Runnable action, Order order) {
+		lock.writeLock().lock();
+		try {
+			action.run();
+			String code = order.getOrderCode();
+			if (code != null && orders.searchById(code) == order) byCode.put(key(code), order);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public boolean cancel(String code) {
+		lock.writeLock().lock();
+		try {
+			boolean ok = orders.cancel(code);
+			if (ok) byCode.remove(key(code));
+			return ok;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// huy ko in gi; tra ve ly do loi, null = da huy
+	public String tryCancel(String code) {
+		lock.writeLock().lock();
+		try {
+			String error = orders.tryCancel(code);
+			if (error == null) byCode.remove(key(code));
+			return error;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Order searchById(String id) {
+		return id == null ? null : byCode.get(key(id));
+	}
+
+	// so don trong RAM (ko khoa)
+	public int size() {
+		return byCode.size();
+	}
+
+	// CapacityEngine tu an toan giua cac thread, ko can khoa
+	public CapacityEngine getCapacity() {
+		return orders.getCapacity();
+	}
+
+	// LiveCounters doc ban chup ko khoa, ko can khoa doc
+	public LiveCounters getCounters() {
+		return orders.getCounters();
+	}
+
+	public boolean isDuplicate(Order order) {
+		return read(() -> orders.isDuplicate(order));
+	}
+
+	public List<Order> findByCustomer(String customerId) {
+		return read(() -> orders.findByCustomer(customerId));
+	}
+
+	public List<Order> findByMenu(String menuId) {
+		return read(() -> orders.findByMenu(menuId));
+	}
+
+	public List<Order> findByDate(LocalDate date) {
+		return read(() -> orders.findByDate(date));
+	}
+
+	public List<Order> findByDateRange(LocalDate from, LocalDate to) {
+		return read(() -> orders.findByDateRange(from, to));
+	}
+
+	// ban chup cac don trong RAM theo thu tu dat
+	public List<Order> snapshot() {
+		return read(() -> new ArrayList<>(orders));
+	}
+
+	// toan bo lich su (file + ban chup RAM), dung trong try-with-resources
+	public Stream<Order> streamHistory() {
+		return read(orders::streamHistory);
+	}
+
+	private <R> R read(Supplier<R> action) {
+		lock.readLock().lock();
+		try {
+			return action.get();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Iterator<Order> iterator() {
+		return snapshot().iterator();
+	}
+
+	@Override
+	public void showAll() {
+		List<Order> list = snapshot(); // in ngoai khoa
+		if (list.isEmpty()) {
+			System.out.println("Danh sach Order trong!");
+			return;
+		}
+		TableRenderer.forOrders().render(list.stream());
+	}
+
+	public void readFromFile() {
+		lock.writeLock().lock();
+		try {
+			orders.readFromFile();
+			byCode.clear();
+			for (Order o : orders) byCode.put(key(o.getOrderCode()), o);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public CompletableFuture<Boolean> saveToFileAsync() {
+		return read(orders::saveToFileAsync);
+	}
+
+	public void saveToFile() {
+		saveToFileAsync().join();
+	}
+
+	private static String key(String code) {
+		return code.toUpperCase(Locale.ROOT);
+	}
+}
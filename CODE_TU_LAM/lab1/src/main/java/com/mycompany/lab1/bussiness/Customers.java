@@ -5,66 +5,137 @@
 package com.mycompany.lab1.bussiness;
 
 import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.tools.Codecs;
 import com.mycompany.lab1.tools.FileUtils;
+import com.mycompany.lab1.tools.Journal;
+import com.mycompany.lab1.tools.TableRenderer;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 
 public class Customers extends ArrayList<Customer> implements Workable<Customer>{
 	private String pathFile;
-	private boolean isSaved;
+	private volatile boolean isSaved;
+	private Journal<Customer> journal; // ghi them tung thay doi, ko ghi lai ca file
+	// ma KH (viet hoa) -> vi tri trong list, tim/them/check trung O(1) thay vi duyet ca list.
+	// Chi them/sua qua addNew/update/readFromFile de index luon khop voi list.
+	private Map<String, Integer> idIndex = new HashMap<>();
+	private NameIndex nameIndex = new NameIndex(); // tim theo 1 phan ten
 	
 	public Customers(){
-		this.pathFile = "data/customers.dat";
+		this("data/customers.dat");
+	}
+	
+	public Customers(String pathFile){
+		this.pathFile = pathFile;
 		this.isSaved = true;  // ban dau chua co gi de luu
+		this.journal = new Journal<>(pathFile, Codecs.CUSTOMER, 1000);
 	}
 	
 	@Override
 	public void addNew(Customer customer){
-		for (Customer c : this){
-			if (c.getId().equalsIgnoreCase(customer.getId())){ 
-				System.out.println("ma KH nay da ton tai");
-                return;
-			}
+		String error = tryAddNew(customer);
+		if (error != null){ 
+			System.out.println(error);
+            return;
 		}
-		this.add(customer);
-        isSaved = false; //Co du lieu moi, chua duoc luu
         System.out.println("Them KH thanh cong!");
 	}
 	
+	// Them KH ko in gi (HTTP server); tra ve ly do loi, null = da them
+	public String tryAddNew(Customer customer){
+		if (idIndex.containsKey(key(customer.getId()))) return "ma KH nay da ton tai";
+		put(customer);
+        isSaved = false; //Co du lieu moi, chua duoc luu
+		log(Journal.ADD, customer);
+		return null;
+	}
+	
+	// Them nhieu KH 1 lan (nhap file): ko in tung dong, journal chi flush 1 lan.
+	// Tra ve ly do loi cua tung KH (null = da them).
+	public String[] addBatch(List<Customer> batch){
+		String[] errors = new String[batch.size()];
+		List<Customer> added = new ArrayList<>(batch.size());
+		for (int i = 0; i < batch.size(); i++){
+			Customer c = batch.get(i);
+			if (idIndex.containsKey(key(c.getId()))){
+				errors[i] = "ma KH nay da ton tai";
+				continue;
+			}
+			put(c);
+			added.add(c);
+		}
+		if (!added.isEmpty()){
+			isSaved = false;
+			journal.appendAll(Journal.ADD, added);
+			if (journal.needCompact(this.size())) journal.compactAsync(copy());
+		}
+		return errors;
+	}
+	
 	@Override
 	public void update(Customer customer){
-		for (int i=0;i<this.size();i++){
-			Customer k = this.get(i);
-			if (k.getId().equalsIgnoreCase(customer.getId())){
-				this.set(i, customer); // i la index
-				isSaved = false;
-				System.out.println("Cap nhat KH thanh cong!");
-				return;
-			}
+		String error = tryUpdate(customer);
+		if (error != null){
+			System.out.println("Loi: " + error);
+			return;
 		}
-		System.out.println("Loi: khong tim thay KH");
+		System.out.println("Cap nhat KH thanh cong!");
+	}
+	
+	// Sua KH ko in gi (chay lenh hang loat); tra ve ly do loi, null = da sua
+	public String tryUpdate(Customer customer){
+		Integer i = idIndex.get(key(customer.getId()));
+		if (i == null) return "khong tim thay KH";
+		this.set(i, customer); // i la index
+		nameIndex.remove(i); // bo trigram cua ten cu truoc khi them ten moi
+		nameIndex.put(i, customer);
+		isSaved = false;
+		log(Journal.UPDATE, customer);
+		return null;
 	}
 	
 	@Override
 	public Customer searchById (String id){
-		for (Customer c : this){
-			if (c.getId().equalsIgnoreCase(id)){
-				return c;
-			}
+		if (id == null) return null;
+		Integer i = idIndex.get(key(id));
+		return i == null ? null : this.get(i);
+	}
+	
+	// them moi hoac thay KH cung ma, giu index khop voi list
+	private void put(Customer customer){
+		String k = key(customer.getId());
+		Integer i = idIndex.get(k);
+		if (i != null){
+			this.set(i, customer);
+			nameIndex.remove(i);
 		}
-		return null;
+		else{
+			i = this.size();
+			idIndex.put(k, i);
+			this.add(customer);
+		}
+		nameIndex.put(i, customer);
+	}
+	
+	// ma KH so sanh ko phan biet hoa thuong (c0001 = C0001)
+	private static String key(String id){
+		return id.toUpperCase(Locale.ROOT);
 	}
 	
 	
+	// tim theo 1 phan ten, ko phan biet hoa thuong va dau (nguyen = Nguyễn), sap xep theo ten
 	public List<Customer> filterByName(String name){
-		List<Customer> l = new ArrayList<>();
-		for (Customer c : this){
-			if (c.getName().toLowerCase().contains(name.toLowerCase())){
-				l.add(c);
-			}
-		}
-		return l;
+		return nameIndex.search(name, Integer.MAX_VALUE);
+	}
+	
+	// nhu tren nhung chi lay toi da limit KH dau tien (go tim kiem)
+	public List<Customer> filterByName(String name, int limit){
+		return nameIndex.search(name, limit);
 	}
 	
 
@@ -72,49 +143,69 @@ public class Customers extends ArrayList<Customer> implements Workable<Customer>
 	// dung cho Customer, vd: listKH.showAll();
 	@Override
 	public void showAll(){
-		if (this.isEmpty()){
-			System.out.println("Danh sach trong!");
-			return;
-		}
-		
-		for (Customer c : this){
-			System.out.println(c);
-		}
+		showAll(this);
 	}
 	
 	// dung cho 1 danh sach bat ky
 	public void showAll(List<Customer> list){
-		if (list.isEmpty()){
-			System.out.println("Danh sach trong!");
-			return;
-		}
-		
-		for (Customer c : list){
-			System.out.println(c);
-		}
+		TableRenderer.forCustomers().render(list.stream());
 	}
 	
 	public void readFromFile() {
 		
-        List<Customer> data =  FileUtils.readFromFile(pathFile);
+        List<Customer> data =  FileUtils.readFromFile(pathFile, Codecs.CUSTOMER);
         
         if (data != null) {
             this.clear();
-            this.addAll(data);
+			idIndex.clear();
+			nameIndex.clear();
+			for (Customer c : data) {
+				put(c);
+			}
+			replay(journal.readAll());
             this.isSaved = true;
             System.out.println("Nap du lieu thanh cong!");
         }
     }
 	
 	public void saveToFile(){
-		// chuyen 'this' (obj Customoers) thanh Arraylist de luu
-		ArrayList<Customer> list = new ArrayList<>(this);
-		// goi saveToFile de luu
-		FileUtils.saveToFile(list, pathFile);
-		
-		this.isSaved = true;
-		System.out.println("Da luu file thanh cong!");
+		if (saveToFileAsync().join()) {
+			System.out.println("Da luu file thanh cong!");
+		}
+	}
+	
+	// Luu o thread nen, tra ve future (true = ghi thanh cong) de ai can thi cho
+	public CompletableFuture<Boolean> saveToFileAsync(){
+		// ghi snapshot moi va xoa journal da gom vao
+		return journal.compactAsync(copy()).thenApply(ok -> {
+			if (ok) this.isSaved = true;
+			return ok;
+		});
+	}
+	
+	// ban copy de thread nen ghi: copy ca tung Customer vi Main sua truc tiep bang setter
+	private List<Customer> copy() {
+		List<Customer> list = new ArrayList<>(this.size());
+		for (Customer c : this) {
+			list.add(new Customer(c.getId(), c.getName(), c.getPhone(), c.getEmail()));
+		}
+		return list;
+	}
+	
+	// ghi 1 ban ghi vao journal, qua nguong thi compact o thread nen
+	private void log(char op, Customer customer) {
+		journal.append(op, customer);
+		if (journal.needCompact(this.size())) {
+			journal.compactAsync(copy());
+		}
+	}
 	
+	// ap dung journal len snapshot: ADD/UPDATE deu la "co thi thay, chua co thi them"
+	// (replay 2 lan van ra cung ket qua, vd: tat may giua luc compact)
+	private void replay(List<Journal.Entry<Customer>> entries) {
+		for (Journal.Entry<Customer> e : entries) {
+			put(e.getData());
+		}
 	}
 	
 	
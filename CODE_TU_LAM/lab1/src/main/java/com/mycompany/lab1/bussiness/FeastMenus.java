@@ -6,51 +6,142 @@ package com.mycompany.lab1.bussiness;
 
 import com.mycompany.lab1.model.SetMenu;
 import com.mycompany.lab1.tools.FileUtils;
-import java.io.File;
-import java.util.ArrayList;
+import com.mycompany.lab1.tools.FileWatcher;
+import com.mycompany.lab1.tools.TableRenderer;
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  *
  * @author Admin
  */
-public class FeastMenus extends ArrayList<SetMenu>{
+public class FeastMenus {
 	private String pathFile;
+	// catalog hien tai, doi ca object khi nap lai -> nguoi doc ko bao gio bi chan
+	private volatile MenuCatalog catalog = new MenuCatalog(List.of());
+	private FileWatcher watcher;
 
 	public FeastMenus() {
-		this.pathFile = "data/FeastMenu.csv";
+		this("data/FeastMenu.csv");
+	}
+
+	public FeastMenus(String pathFile) {
+		this.pathFile = pathFile;
 		// Vua tao doi tuong, la nap du lieu luon
         this.loadData();
 	}
-	
+
 	private void loadData(){
 		List<SetMenu> list = FileUtils.readMenus(pathFile);
-		
+
 		if (list != null && !list.isEmpty()){
-			this.clear();
-			this.addAll(list);
+			this.catalog = new MenuCatalog(list);
 			System.out.println("nap du lieu thanh cong!");
 		}
 		else{
 			System.out.println("Loi: khong thay thuc don nao de nap!");
 		}
-		
+
 	}
-	
-	
-	public SetMenu getMenuById(String id){
-		for (SetMenu menu : this){
-			if (menu.getMenuId().equalsIgnoreCase(id))
-				return menu;
+
+	// Nap lai file CSV khi dang chay, chi in ra cac dong thay doi.
+	// Don da dat giu nguyen gia luc dat (totalCost luu trong Order).
+	public void reload(){
+		List<SetMenu> list = FileUtils.readMenus(pathFile);
+		if (list == null || list.isEmpty()){
+			System.out.println("Loi: file thuc don rong, giu thuc don cu!");
+			return;
+		}
+
+		MenuCatalog old = catalog;
+		Map<String, SetMenu> oldById = new HashMap<>();
+		for (SetMenu m : old.getAll()){
+			oldById.put(m.getMenuId().toUpperCase(Locale.ROOT), m);
 		}
-		return null;
+
+		int changed = 0;
+		for (int i = 0; i < list.size(); i++){
+			SetMenu m = list.get(i);
+			SetMenu before = oldById.remove(m.getMenuId().toUpperCase(Locale.ROOT));
+			if (before == null){
+				System.out.println("Them thuc don: " + m.getMenuId());
+				changed++;
+			}
+			else if (sameContent(before, m)){
+				list.set(i, before); // dong ko doi: dung lai object cu
+			}
+			else{
+				if (before.getPrice() != m.getPrice())
+					System.out.printf("Cap nhat thuc don %s: gia %.0f -> %.0f%n", m.getMenuId(), before.getPrice(), m.getPrice());
+				else
+					System.out.println("Cap nhat thuc don: " + m.getMenuId());
+				changed++;
+			}
+		}
+		for (String id : oldById.keySet()){
+			System.out.println("Xoa thuc don: " + id);
+			changed++;
+		}
+
+		if (changed > 0)
+			this.catalog = new MenuCatalog(list);
 	}
-	
-	public void showAll(){
-		for (SetMenu menu : this){
-			System.out.println(menu);
+
+	private static boolean sameContent(SetMenu a, SetMenu b){
+		return a.getPrice() == b.getPrice()
+				&& Objects.equals(a.getMenuId(), b.getMenuId())
+				&& Objects.equals(a.getMenuName(), b.getMenuName())
+				&& Objects.equals(a.getIngredients(), b.getIngredients());
+	}
+
+	// Theo doi file CSV, doi thi tu nap lai (ko can khoi dong lai chuong trinh)
+	public void startWatching(){
+		if (watcher != null) return;
+		watcher = new FileWatcher(pathFile, 500, this::reload);
+		try {
+			watcher.start();
+		}
+		catch (IOException e){
+			System.out.println("Khong theo doi duoc file thuc don: " + e.getMessage());
+			watcher = null;
 		}
 	}
-	
-	
+
+	public void stopWatching(){
+		if (watcher != null) watcher.stop();
+		watcher = null;
+	}
+
+	public SetMenu getMenuById(String id){
+		return catalog.get(id);
+	}
+
+	// danh sach thuc don hien tai (chi doc)
+	public List<SetMenu> getAll(){
+		return catalog.getAll();
+	}
+
+	public int size(){
+		return catalog.size();
+	}
+
+	public boolean isEmpty(){
+		return catalog.size() == 0;
+	}
+
+	// danh sach sap theo gia tang dan (da sap san luc nap)
+	public List<SetMenu> getAllByPrice(){
+		return catalog.getAllByPrice();
+	}
+
+	// hien thi theo gia tang dan
+	public void showAll(){
+		TableRenderer.forMenus().render(catalog.getAllByPrice().stream());
+	}
+
+
 }
@@ -0,0 +1,253 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.tools.Dates;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * So lieu cho dashboard (don/doanh thu/so ban: tong, theo ngay to chuc, theo thang, theo menu),
+ * cap nhat O(1) moi khi Orders them/sua/huy don, ko phai quet lai Orders moi lan xem.
+ * Bo dem la LongAdder (nhieu thread cong cung luc ko tranh nhau 1 o nho).
+ * snapshot(): chup tat ca bo dem khop voi nhau ma ko khoa nguoi ghi:
+ *   nguoi ghi tang writing truoc khi sua, xong thi tang version roi giam writing;
+ *   nguoi doc doc version, doc het, neu trong luc do co ai ghi (writing > 0 / version doi) thi doc lai.
+ * Orders nap lai tu file (readFromFile) thi dem lai tu dau.
+ */
+public class LiveCounters {
+	private final Bucket all = new Bucket();
+	private final ConcurrentHashMap<Integer, Bucket> byDay = new ConcurrentHashMap<>();   // epoch day
+	private final ConcurrentHashMap<Integer, Bucket> byMonth = new ConcurrentHashMap<>(); // yyyy * 100 + MM
+	private final ConcurrentHashMap<String, Bucket> byMenu = new ConcurrentHashMap<>();
+
+	private final AtomicLong writing = new AtomicLong(); // so thao tac ghi dang chay
+	private final AtomicLong version = new AtomicLong(); // tang sau moi thao tac ghi
+
+	private static class Bucket {
+		final LongAdder count = new LongAdder();
+		final LongAdder revenue = new LongAdder();
+		final LongAdder tables = new LongAdder();
+
+		void add(int numOfTables, long totalVnd, int sign) {
+			count.add(sign);
+			revenue.add(sign * totalVnd);
+			tables.add(sign * numOfTables);
+		}
+
+		void addAll(Bucket other) {
+			count.add(other.count.sum());
+			revenue.add(other.revenue.sum());
+			tables.add(other.tables.sum());
+		}
+
+		Totals read() {
+			return new Totals(count.sum(), revenue.sum(), tables.sum());
+		}
+	}
+
+	// so lieu 1 nhom tai 1 thoi diem
+	public static class Totals {
+		public static final Totals ZERO = new Totals(0, 0, 0);
+
+		private final long count;
+		private final long revenue;
+		private final long tables;
+
+		Totals(long count, long revenue, long tables) {
+			this.count = count;
+			this.revenue = revenue;
+			this.tables = tables;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getRevenue() {
+			return revenue;
+		}
+
+		public long getTables() {
+			return tables;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Totals)) return false;
+			Totals t = (Totals) o;
+			return count == t.count && revenue == t.revenue && tables == t.tables;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(31 * (31 * count + revenue) + tables);
+		}
+
+		@Override
+		public String toString() {
+			return "count=" + count + ", revenue=" + revenue + ", tables=" + tables;
+		}
+	}
+
+	// ban chup: cac so lieu cung 1 thoi diem, ko doi nua
+	public static class Snapshot {
+		private final Totals total;
+		private final Map<Integer, Totals> byDay;
+		private final Map<Integer, Totals> byMonth;
+		private final Map<String, Totals> byMenu;
+		private final long version;
+
+		Snapshot(Totals total, Map<Integer, Totals> byDay, Map<Integer, Totals> byMonth, Map<String, Totals> byMenu, long version) {
+			this.total = total;
+			this.byDay = byDay;
+			this.byMonth = byMonth;
+			this.byMenu = byMenu;
+			this.version = version;
+		}
+
+		public Totals getTotal() {
+			return total;
+		}
+
+		// cac don to chuc vao ngay date
+		public Totals getDay(LocalDate date) {
+			return byDay.getOrDefault(Dates.toEpochDay(date), Totals.ZERO);
+		}
+
+		public Totals getMonth(YearMonth month) {
+			return byMonth.getOrDefault(month.getYear() * 100 + month.getMonthValue(), Totals.ZERO);
+		}
+
+		// ma menu (viet hoa) -> so lieu, theo thu tu ma
+		public Map<String, Totals> getByMenu() {
+			return byMenu;
+		}
+
+		// so lan ghi da xay ra truoc ban chup (so sanh 2 ban chup)
+		public long getVersion() {
+			return version;
+		}
+	}
+
+	// ===== Ghi (Orders goi) =====
+	// Bot/them theo gia tri da dem luc truoc (Orders luu trong Slot), ko doc lai tu Order:
+	// Order co the da bi sua bang setter truoc khi goi update.
+	// Sua don = remove + add trong 1 cap begin/end.
+
+	public void add(Order o) {
+		add(o.getEpochDay(), o.getMenuId(), o.getNumOfTables(), o.getTotalVnd());
+	}
+
+	public void add(int epochDay, String menuId, int numOfTables, long totalVnd) {
+		begin();
+		try {
+			apply(epochDay, menuId, numOfTables, totalVnd, 1);
+		}
+		finally {
+			end();
+		}
+	}
+
+	public void remove(int epochDay, String menuId, int numOfTables, long totalVnd) {
+		begin();
+		try {
+			apply(epochDay, menuId, numOfTables, totalVnd, -1);
+		}
+		finally {
+			end();
+		}
+	}
+
+	// nhieu thao tac ghi thanh 1 (nap lai): snapshot cho den end(), ko thay so lieu do dang.
+	// Goi long nhau duoc.
+	void begin() {
+		writing.incrementAndGet();
+	}
+
+	void end() {
+		version.incrementAndGet();
+		writing.decrementAndGet();
+	}
+
+	// xoa het (goi trong begin/end khi nap lai)
+	void clear() {
+		all.count.reset();
+		all.revenue.reset();
+		all.tables.reset();
+		byDay.clear();
+		byMonth.clear();
+		byMenu.clear();
+	}
+
+	// cong them so lieu cua 1 bo dem khac (don chi con trong file khi nap lai)
+	void addAll(LiveCounters other) {
+		all.addAll(other.all);
+		other.byDay.forEach((k, b) -> byDay.computeIfAbsent(k, x -> new Bucket()).addAll(b));
+		other.byMonth.forEach((k, b) -> byMonth.computeIfAbsent(k, x -> new Bucket()).addAll(b));
+		other.byMenu.forEach((k, b) -> byMenu.computeIfAbsent(k, x -> new Bucket()).addAll(b));
+	}
+
+	private void apply(int day, String menuId, int numOfTables, long totalVnd, int sign) {
+		all.add(numOfTables, totalVnd, sign);
+		if (day != Dates.NO_DATE) {
+			byDay.computeIfAbsent(day, k -> new Bucket()).add(numOfTables, totalVnd, sign);
+			LocalDate d = LocalDate.ofEpochDay(day);
+			byMonth.computeIfAbsent(d.getYear() * 100 + d.getMonthValue(), k -> new Bucket()).add(numOfTables, totalVnd, sign);
+		}
+		if (menuId != null) {
+			byMenu.computeIfAbsent(menuId.toUpperCase(Locale.ROOT), k -> new Bucket()).add(numOfTables, totalVnd, sign);
+		}
+	}
+
+	// cung so lieu voi bo dem khac (kiem tra bo dem cap nhat dan khop voi dem lai tu dau)
+	boolean sameAs(LiveCounters other) {
+		Snapshot a = snapshot();
+		Snapshot b = other.snapshot();
+		return a.total.equals(b.total) && a.byDay.equals(b.byDay) && a.byMonth.equals(b.byMonth) && a.byMenu.equals(b.byMenu);
+	}
+
+	// ===== Doc =====
+
+	public Totals getTotal() {
+		return snapshot().getTotal();
+	}
+
+	public Snapshot snapshot() {
+		for (int attempt = 0; ; attempt++) {
+			long v = version.get();
+			if (writing.get() == 0) {
+				Snapshot s = read(v);
+				if (writing.get() == 0 && version.get() == v) return s;
+			}
+			// dang co nguoi ghi: cho 1 chut roi doc lai (ko khoa nguoi ghi)
+			if (attempt < 100) Thread.onSpinWait();
+			else Thread.yield();
+		}
+	}
+
+	private Snapshot read(long v) {
+		return new Snapshot(all.read(), copy(byDay), copy(byMonth), copy(byMenu), v);
+	}
+
+	// bo nhom da ve 0 (vd: don da huy het)
+	private static <K> Map<K, Totals> copy(Map<K, Bucket> source) {
+		Map<K, Totals> result = new TreeMap<>();
+		source.forEach((k, b) -> {
+			Totals t = b.read();
+			if (t.count != 0 || t.revenue != 0 || t.tables != 0) result.put(k, t);
+		});
+		return Collections.unmodifiableMap(result);
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.SetMenu;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Danh sach thuc don chi doc (immutable). Khi nap lai file CSV thi tao catalog moi
+ * roi doi 1 lan (copy-on-write), nguoi dang doc van dung catalog cu, ko bi do dang.
+ * Ma PWxxx (Acceptable.MENU_ID_VALID) -> o thu xxx trong mang 1000 o, tim O(1);
+ * ma khac dang (file CSV cu) thi tim trong HashMap.
+ * Danh sach sap theo gia tinh 1 lan luc tao, hien thi ko phai sap xep lai.
+ */
+public final class MenuCatalog {
+	private static final int SLOTS = 1000;
+
+	private final List<SetMenu> menus;
+	private final List<SetMenu> byPrice;
+	private final SetMenu[] slots = new SetMenu[SLOTS];
+	private final Map<String, SetMenu> others = new HashMap<>();
+
+	public MenuCatalog(List<SetMenu> list) {
+		this.menus = Collections.unmodifiableList(new ArrayList<>(list));
+
+		for (SetMenu menu : menus) {
+			// trung ma thi giu thuc don dau tien (nhu tim tuan tu truoc day)
+			int i = slot(menu.getMenuId());
+			if (i >= 0) {
+				if (slots[i] == null) slots[i] = menu;
+			}
+			else if (menu.getMenuId() != null) {
+				others.putIfAbsent(menu.getMenuId().toUpperCase(Locale.ROOT), menu);
+			}
+		}
+
+		List<SetMenu> sorted = new ArrayList<>(menus);
+		sorted.sort(Comparator.comparingDouble(SetMenu::getPrice).thenComparing(SetMenu::getMenuId));
+		this.byPrice = Collections.unmodifiableList(sorted);
+	}
+
+	public SetMenu get(String id) {
+		int i = slot(id);
+		if (i >= 0) return slots[i];
+		return id == null || others.isEmpty() ? null : others.get(id.toUpperCase(Locale.ROOT));
+	}
+
+	// "PW123" / "pw123" -> 123, ma khac dang -> -1 (ko tao chuoi moi)
+	private static int slot(String id) {
+		if (id == null || id.length() != 5) return -1;
+		if ((id.charAt(0) | 0x20) != 'p' || (id.charAt(1) | 0x20) != 'w') return -1;
+		int d0 = id.charAt(2) - '0';
+		int d1 = id.charAt(3) - '0';
+		int d2 = id.charAt(4) - '0';
+		if ((d0 | d1 | d2) < 0 || d0 > 9 || d1 > 9 || d2 > 9) return -1;
+		return d0 * 100 + d1 * 10 + d2;
+	}
+
+	// theo thu tu trong file
+	public List<SetMenu> getAll() {
+		return menus;
+	}
+
+	// sap theo gia tang dan (cung gia thi theo ma)
+	public List<SetMenu> getAllByPrice() {
+		return byPrice;
+	}
+
+	public int size() {
+		return menus.size();
+	}
+}
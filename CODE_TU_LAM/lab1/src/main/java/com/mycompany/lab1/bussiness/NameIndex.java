@@ -0,0 +1,186 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Customer;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Index tim KH theo 1 phan ten (trigram = 3 ky tu lien tiep).
+ * Ten duoc chuan hoa: bo dau tieng Viet (Nguyễn -> nguyen, Đ -> d), chu thuong.
+ * Moi trigram -> danh sach vi tri KH co trigram do; tim "uyen" chi can xet
+ * danh sach ngan nhat trong cac trigram "uye", "yen" roi kiem tra lai.
+ * Vi tri = vi tri cua KH trong Customers (ko bao gio xoa nen ko doi).
+ * Doi ten: remove(pos) go trigram cua ten cu roi put(pos) them trigram cua ten moi.
+ * Chi lay limit KH dau tien theo ten bang heap kich thuoc limit, ko sap xep het ket qua.
+ */
+class NameIndex {
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+	private List<Customer> customers = new ArrayList<>();
+	private List<String> keys = new ArrayList<>();           // ten da chuan hoa theo vi tri
+	private Map<Long, IntList> postings = new HashMap<>();
+	// thu tu ket qua: ten chuan hoa, roi den ma KH
+	private final Comparator<Integer> byName = Comparator.comparing((Integer pos) -> keys.get(pos))
+			.thenComparing(pos -> customers.get(pos).getId());
+
+	// mang int tang dan tu dai ra, ko boxing (KH moi co vi tri lon nhat -> them vao cuoi)
+	private static class IntList {
+		private int[] data = new int[4];
+		private int size;
+
+		void add(int x) {
+			int i = size == 0 || data[size - 1] < x ? size : Arrays.binarySearch(data, 0, size, x);
+			if (i < 0) i = -i - 1;
+			else if (i < size) return; // da co
+			if (size == data.length) data = Arrays.copyOf(data, size * 2);
+			System.arraycopy(data, i, data, i + 1, size - i);
+			data[i] = x;
+			size++;
+		}
+
+		void remove(int x) {
+			int i = Arrays.binarySearch(data, 0, size, x);
+			if (i < 0) return;
+			System.arraycopy(data, i + 1, data, i, size - i - 1);
+			size--;
+		}
+	}
+
+	// them KH moi o cuoi, hoac dat lai KH o vi tri pos da remove(pos) truoc do
+	void put(int pos, Customer customer) {
+		String key = normalize(customer.getName());
+		if (pos < customers.size()) {
+			customers.set(pos, customer);
+			keys.set(pos, key);
+		}
+		else {
+			customers.add(customer);
+			keys.add(key);
+		}
+		for (long t : trigrams(key)) {
+			postings.computeIfAbsent(t, k -> new IntList()).add(pos);
+		}
+	}
+
+	// go cac trigram cua ten hien tai o vi tri pos (goi truoc khi doi ten KH)
+	void remove(int pos) {
+		if (pos >= keys.size()) return;
+		for (long t : trigrams(keys.get(pos))) {
+			IntList p = postings.get(t);
+			if (p == null) continue;
+			p.remove(pos);
+			if (p.size == 0) postings.remove(t);
+		}
+		keys.set(pos, "");
+	}
+
+	// cac trigram khac nhau cua 1 ten
+	private static Set<Long> trigrams(String key) {
+		Set<Long> result = new HashSet<>();
+		for (int i = 0; i + 3 <= key.length(); i++) {
+			result.add(trigram(key, i));
+		}
+		return result;
+	}
+
+	// tong so vi tri trong tat ca danh sach trigram (kiem tra doi ten ko de lai rac)
+	int postingCount() {
+		int total = 0;
+		for (IntList p : postings.values()) total += p.size;
+		return total;
+	}
+
+	void clear() {
+		customers.clear();
+		keys.clear();
+		postings.clear();
+	}
+
+	// KH co ten chua query (ko phan biet dau, hoa thuong), sap xep theo ten.
+	// limit: so KH toi da can lay (go tim kiem thi chi can vai chuc dong dau).
+	List<Customer> search(String query, int limit) {
+		String q = normalize(query);
+		int n = keys.size();
+
+		IntList smallest = null;
+		for (int i = 0; i + 3 <= q.length(); i++) {
+			IntList p = postings.get(trigram(q, i));
+			if (p == null) return new ArrayList<>(); // co trigram ko ai co -> ko co ket qua
+			if (smallest == null || p.size < smallest.size) smallest = p;
+		}
+
+		// heap giu limit KH nho nhat theo ten (dinh heap = KH "lon" nhat trong so do)
+		PriorityQueue<Integer> top = new PriorityQueue<>(byName.reversed());
+		if (smallest == null) {
+			// query ngan qua, ko co trigram: duyet het
+			for (int pos = 0; pos < n; pos++) {
+				if (keys.get(pos).contains(q)) offer(top, pos, limit);
+			}
+		}
+		else {
+			for (int j = 0; j < smallest.size; j++) {
+				int pos = smallest.data[j];
+				if (keys.get(pos).contains(q)) offer(top, pos, limit);
+			}
+		}
+
+		List<Integer> matches = new ArrayList<>(top);
+		matches.sort(byName);
+		List<Customer> result = new ArrayList<>(matches.size());
+		for (int pos : matches) {
+			result.add(customers.get(pos));
+		}
+		return result;
+	}
+
+	private void offer(PriorityQueue<Integer> top, int pos, int limit) {
+		if (top.size() < limit) {
+			top.add(pos);
+		}
+		else if (byName.compare(pos, top.peek()) < 0) {
+			top.poll();
+			top.add(pos);
+		}
+	}
+
+	// bo dau tieng Viet, chu thuong, gop khoang trang
+	static String normalize(String s) {
+		if (s == null) return "";
+		String noMarks = MARKS.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("");
+		StringBuilder sb = new StringBuilder(noMarks.length());
+		boolean space = true;
+		for (int i = 0; i < noMarks.length(); i++) {
+			char c = noMarks.charAt(i);
+			if (c == 'đ' || c == 'Đ') c = 'd';
+			if (Character.isWhitespace(c)) {
+				if (!space) sb.append(' ');
+				space = true;
+			}
+			else {
+				sb.append(Character.toLowerCase(c));
+				space = false;
+			}
+		}
+		int len = sb.length();
+		if (len > 0 && sb.charAt(len - 1) == ' ') sb.setLength(len - 1);
+		return sb.toString();
+	}
+
+	// 3 ky tu -> 1 so long (16 bit/ky tu)
+	private static long trigram(String s, int i) {
+		return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+	}
+}
@@ -0,0 +1,286 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.tools.Dates;
+import com.mycompany.lab1.tools.StringTable;
+import com.mycompany.lab1.tools.TableRenderer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Kho don theo cot (column store) cho lich su lon (hang trieu don), dung de thong ke.
+ * Moi truong 1 mang so nguyen rieng, chia thanh khoi CHUNK dong (them dong ko phai copy ca mang):
+ * ma KH/menu ma hoa thanh so theo bang chuoi (StringTable), ngay = epoch day, tien = VND.
+ * Bo nho moi don: 24 byte cot so (KH, menu, so ban, ngay: 4 int; tien: 1 long)
+ * + 8..16 byte o bang bam ma don (int, bang luon >= 2 lan so dong)
+ * + ma don: 4 byte tham chieu + chuoi rieng (~56 byte voi ma 13 ky tu).
+ * Tong ~90-100 byte, so voi ~190 byte cho 1 Order + 3 chuoi rieng cua no;
+ * thong ke chay thang tren mang, ko tao Order.
+ * Order chi duoc tao khi can (searchById, duyet, showAll).
+ * Nap tu Orders: orders.toColumnStore().
+ */
+public class OrderColumnStore implements Workable<Order>, Iterable<Order> {
+	private static final int SHIFT = 12;
+	private static final int CHUNK = 1 << SHIFT;   // 4096 dong/khoi
+	private static final int MASK = CHUNK - 1;
+
+	private StringTable customers = new StringTable(); // ma KH -> so
+	private StringTable menus = new StringTable();     // ma menu -> so
+	// ma don -> dong: bang bam mo (open addressing) tren int[], luu dong+1, 0 = o trong.
+	// Ko dung HashMap<String, Integer> vi ton ~50 byte/don cho Entry + Integer.
+	private int[] codeSlots = new int[1 << 10];
+
+	private String[][] codes = new String[0][];
+	private int[][] customer = new int[0][];
+	private int[][] menu = new int[0][];
+	private int[][] tables = new int[0][];
+	private int[][] day = new int[0][];
+	private long[][] total = new long[0][];
+	private BitSet cancelled = new BitSet();  // dong da huy, bo qua khi duyet
+	private int size;                         // so dong (ca dong da huy)
+
+	@Override
+	public void addNew(Order x) {
+		if (find(x.getOrderCode()) >= 0) {
+			System.out.println("Loi: ma don da ton tai");
+			return;
+		}
+		if ((size & MASK) == 0) grow();
+		int row = size++;
+		write(row, x);
+		insert(row);
+	}
+
+	@Override
+	public void update(Order x) {
+		int row = find(x.getOrderCode());
+		if (row < 0) {
+			System.out.println("Loi: khong tim thay Order");
+			return;
+		}
+		write(row, x);
+	}
+
+	@Override
+	public Order searchById(String id) {
+		int row = find(id);
+		return row < 0 ? null : get(row);
+	}
+
+	@Override
+	public void showAll() {
+		if (count() == 0) {
+			System.out.println("Danh sach Order trong!");
+			return;
+		}
+		TableRenderer.forOrders().render(stream());
+	}
+
+	// dong bi huy van nam trong bang bam, find() bo qua
+	public boolean cancel(String code) {
+		int row = find(code);
+		if (row < 0) return false;
+		cancelled.set(row);
+		return true;
+	}
+
+	// so don (ko tinh don da huy)
+	public int count() {
+		return size - cancelled.cardinality();
+	}
+
+	// them 1 khoi moi cho moi cot
+	private void grow() {
+		int n = codes.length;
+		codes = Arrays.copyOf(codes, n + 1);
+		customer = Arrays.copyOf(customer, n + 1);
+		menu = Arrays.copyOf(menu, n + 1);
+		tables = Arrays.copyOf(tables, n + 1);
+		day = Arrays.copyOf(day, n + 1);
+		total = Arrays.copyOf(total, n + 1);
+		codes[n] = new String[CHUNK];
+		customer[n] = new int[CHUNK];
+		menu[n] = new int[CHUNK];
+		tables[n] = new int[CHUNK];
+		day[n] = new int[CHUNK];
+		total[n] = new long[CHUNK];
+	}
+
+	// ===== Bang bam ma don (ko phan biet hoa thuong, ko tao chuoi moi) =====
+
+	// dong chua huy co ma don = code, -1 neu ko co
+	private int find(String code) {
+		if (code == null) return -1;
+		int mask = codeSlots.length - 1;
+		for (int i = hash(code) & mask; codeSlots[i] != 0; i = (i + 1) & mask) {
+			int row = codeSlots[i] - 1;
+			if (!cancelled.get(row) && codes[row >>> SHIFT][row & MASK].equalsIgnoreCase(code)) return row;
+		}
+		return -1;
+	}
+
+	private void insert(int row) {
+		if (size * 2 > codeSlots.length) rehash();
+		int mask = codeSlots.length - 1;
+		int i = hash(codes[row >>> SHIFT][row & MASK]) & mask;
+		while (codeSlots[i] != 0) i = (i + 1) & mask;
+		codeSlots[i] = row + 1;
+	}
+
+	// gap doi bang khi day qua 1/2 (goi truoc khi them)
+	private void rehash() {
+		int[] old = codeSlots;
+		codeSlots = new int[old.length * 2];
+		int mask = codeSlots.length - 1;
+		for (int v : old) {
+			if (v == 0) continue;
+			int row = v - 1;
+			int i = hash(codes[row >>> SHIFT][row & MASK]) & mask;
+			while (codeSlots[i] != 0) i = (i + 1) & mask;
+			codeSlots[i] = v;
+		}
+	}
+
+	private static int hash(String code) {
+		int h = 0;
+		for (int i = 0; i < code.length(); i++) {
+			h = 31 * h + Character.toUpperCase(code.charAt(i));
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private void write(int row, Order o) {
+		int c = row >>> SHIFT;
+		int i = row & MASK;
+		codes[c][i] = o.getOrderCode();
+		customer[c][i] = customers.add(o.getCustomerId());
+		menu[c][i] = menus.add(o.getMenuId());
+		tables[c][i] = o.getNumOfTables();
+		day[c][i] = o.getEpochDay();
+		total[c][i] = o.getTotalVnd();
+	}
+
+	// tao Order tu 1 dong
+	private Order get(int row) {
+		int c = row >>> SHIFT;
+		int i = row & MASK;
+		return new Order(codes[c][i], customers.get(customer[c][i]), menus.get(menu[c][i]),
+				tables[c][i], day[c][i], total[c][i]);
+	}
+
+	// duyet cac don chua huy theo thu tu them, moi lan next() tao 1 Order
+	@Override
+	public Iterator<Order> iterator() {
+		return new Iterator<Order>() {
+			private int row = cancelled.nextClearBit(0);
+
+			@Override
+			public boolean hasNext() {
+				return row < size;
+			}
+
+			@Override
+			public Order next() {
+				if (row >= size) throw new NoSuchElementException();
+				Order o = get(row);
+				row = cancelled.nextClearBit(row + 1);
+				return o;
+			}
+		};
+	}
+
+	// cac don chua huy theo thu tu them (tao Order khi duyet toi)
+	public Stream<Order> stream() {
+		return StreamSupport.stream(Spliterators.spliterator(iterator(), count(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	// ===== Thong ke tren cot, ko tao Order =====
+
+	// tong doanh thu (VND)
+	public long totalRevenue() {
+		return revenueBetween(Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	// doanh thu cac don to chuc tu ngay from den to (tinh ca 2 dau).
+	// from/to = null: ko gioi han dau do; don chua co ngay ko thuoc khoang nao (chi tinh trong totalRevenue)
+	public long revenueBetween(LocalDate from, LocalDate to) {
+		int lo = from == null ? Dates.NO_DATE + 1 : Dates.toEpochDay(from);
+		int hi = to == null ? Integer.MAX_VALUE : Dates.toEpochDay(to);
+		return revenueBetween(lo, hi);
+	}
+
+	private long revenueBetween(int from, int to) {
+		long sum = 0;
+		boolean skip = !cancelled.isEmpty();
+		for (int c = 0; c < codes.length; c++) {
+			int[] d = day[c];
+			long[] t = total[c];
+			int n = Math.min(CHUNK, size - (c << SHIFT));
+			for (int i = 0; i < n; i++) {
+				if (d[i] >= from && d[i] <= to && !(skip && cancelled.get((c << SHIFT) | i))) sum += t[i];
+			}
+		}
+		return sum;
+	}
+
+	// so ban da dat cho 1 ngay
+	public int tablesOn(LocalDate date) {
+		int target = Dates.toEpochDay(date);
+		int sum = 0;
+		boolean skip = !cancelled.isEmpty();
+		for (int c = 0; c < codes.length; c++) {
+			int[] d = day[c];
+			int[] t = tables[c];
+			int n = Math.min(CHUNK, size - (c << SHIFT));
+			for (int i = 0; i < n; i++) {
+				if (d[i] == target && !(skip && cancelled.get((c << SHIFT) | i))) sum += t[i];
+			}
+		}
+		return sum;
+	}
+
+	// doanh thu theo ma menu (dung ma nhu trong don)
+	public Map<String, Long> revenueByMenu() {
+		return sumBy(menu, menus);
+	}
+
+	// doanh thu theo ma KH (dung ma nhu trong don)
+	public Map<String, Long> revenueByCustomer() {
+		return sumBy(customer, customers);
+	}
+
+	// cong tien theo cot da ma hoa: cong vao mang theo so, cuoi cung moi doi ra chuoi
+	private Map<String, Long> sumBy(int[][] column, StringTable dict) {
+		long[] sums = new long[dict.size()];
+		boolean[] seen = new boolean[dict.size()];
+		boolean skip = !cancelled.isEmpty(); // ko co don huy thi ko can check tung dong
+		for (int c = 0; c < codes.length; c++) {
+			int[] k = column[c];
+			long[] t = total[c];
+			int n = Math.min(CHUNK, size - (c << SHIFT));
+			for (int i = 0; i < n; i++) {
+				if (skip && cancelled.get((c << SHIFT) | i)) continue;
+				sums[k[i]] += t[i];
+				seen[k[i]] = true;
+			}
+		}
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (int i = 0; i < sums.length; i++) {
+			if (seen[i]) result.put(dict.get(i), sums[i]);
+		}
+		return result;
+	}
+}
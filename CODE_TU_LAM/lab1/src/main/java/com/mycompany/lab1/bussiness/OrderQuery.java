@@ -0,0 +1,244 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.tools.Dates;
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Truy van / thong ke don (bao cao doanh thu theo menu, thang, KH...):
+ *   new OrderQuery().between(from, to).menu("PW001").minTables(5)
+ *       .groupBy(orders.streamHistory(), OrderQuery.GroupBy.MONTH)
+ * Loc: khoang ngay (tinh ca 2 dau), ma KH, ma menu, so ban toi thieu.
+ * Gom nhom: dem, tong/trung binh tien va so ban; top N nhom theo 1 chi so.
+ * Chay song song: moi thread cong vao 1 HashMap rieng (ko khoa, ko dung chung),
+ * xong moi gop cac map lai, nen tang gan tuyen tinh theo so nhan.
+ * Nguon nen la Collection (ArrayList chia deu cho cac thread), Stream tu file van chay duoc.
+ */
+public class OrderQuery {
+	private int fromDay = Integer.MIN_VALUE;
+	private int toDay = Integer.MAX_VALUE;
+	private String customerId;
+	private String menuId;
+	private int minTables;
+
+	public enum GroupBy {
+		MENU, CUSTOMER, DAY, MONTH, YEAR
+	}
+
+	public enum Metric {
+		COUNT, TOTAL, AVG_TOTAL, TABLES, AVG_TABLES;
+
+		public double of(Stats s) {
+			switch (this) {
+				case COUNT: return s.count;
+				case TOTAL: return s.totalVnd;
+				case AVG_TOTAL: return s.getAvgTotal();
+				case TABLES: return s.tables;
+				default: return s.getAvgTables();
+			}
+		}
+	}
+
+	// so lieu 1 nhom; chi sua trong thread dang cong, gop xong moi doc
+	public static class Stats {
+		private long count;
+		private long totalVnd;
+		private long tables;
+
+		void add(Order o) {
+			count++;
+			totalVnd += o.getTotalVnd();
+			tables += o.getNumOfTables();
+		}
+
+		Stats merge(Stats other) {
+			count += other.count;
+			totalVnd += other.totalVnd;
+			tables += other.tables;
+			return this;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getTotalVnd() {
+			return totalVnd;
+		}
+
+		public long getTables() {
+			return tables;
+		}
+
+		public double getAvgTotal() {
+			return count == 0 ? 0 : (double) totalVnd / count;
+		}
+
+		public double getAvgTables() {
+			return count == 0 ? 0 : (double) tables / count;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("count=%d, total=%d, avgTotal=%.0f, tables=%d, avgTables=%.2f",
+					count, totalVnd, getAvgTotal(), tables, getAvgTables());
+		}
+	}
+
+	// ===== Dieu kien loc =====
+
+	public OrderQuery between(LocalDate from, LocalDate to) {
+		return from(from).to(to);
+	}
+
+	public OrderQuery from(LocalDate from) {
+		this.fromDay = from == null ? Integer.MIN_VALUE : Dates.toEpochDay(from);
+		return this;
+	}
+
+	public OrderQuery to(LocalDate to) {
+		this.toDay = to == null ? Integer.MAX_VALUE : Dates.toEpochDay(to);
+		return this;
+	}
+
+	public OrderQuery customer(String customerId) {
+		this.customerId = customerId;
+		return this;
+	}
+
+	public OrderQuery menu(String menuId) {
+		this.menuId = menuId;
+		return this;
+	}
+
+	public OrderQuery minTables(int minTables) {
+		this.minTables = minTables;
+		return this;
+	}
+
+	public boolean test(Order o) {
+		if (fromDay != Integer.MIN_VALUE || toDay != Integer.MAX_VALUE) {
+			int day = o.getEpochDay();
+			if (day == Dates.NO_DATE || day < fromDay || day > toDay) return false;
+		}
+		if (o.getNumOfTables() < minTables) return false;
+		if (customerId != null && !customerId.equalsIgnoreCase(o.getCustomerId())) return false;
+		return menuId == null || menuId.equalsIgnoreCase(o.getMenuId());
+	}
+
+	// ===== Chay =====
+
+	// cac don thoa dieu kien, giu thu tu nguon
+	public List<Order> find(Collection<Order> source) {
+		return find(source.parallelStream());
+	}
+
+	public List<Order> find(Stream<Order> source) {
+		try (Stream<Order> s = source) {
+			return s.parallel().filter(this::test).collect(Collectors.toList());
+		}
+	}
+
+	// tong hop tat ca don thoa dieu kien (1 nhom)
+	public Stats summary(Collection<Order> source) {
+		return summary(source.parallelStream());
+	}
+
+	public Stats summary(Stream<Order> source) {
+		try (Stream<Order> s = source) {
+			return s.parallel().filter(this::test).collect(Collector.of(Stats::new, Stats::add, Stats::merge));
+		}
+	}
+
+	// so lieu theo nhom, sap theo ten nhom (ngay/thang dang yyyy-MM-dd / yyyy-MM nen cung la theo thoi gian)
+	public Map<String, Stats> groupBy(Collection<Order> source, GroupBy by) {
+		return groupBy(source.parallelStream(), by);
+	}
+
+	public Map<String, Stats> groupBy(Stream<Order> source, GroupBy by) {
+		Map<Object, Stats> partial;
+		try (Stream<Order> s = source) {
+			// Collector ko CONCURRENT: moi thread 1 HashMap rieng, combiner gop map nho vao map lon
+			partial = s.parallel().filter(this::test).collect(Collector.of(
+					HashMap::new,
+					(Map<Object, Stats> map, Order o) -> map.computeIfAbsent(key(by, o), k -> new Stats()).add(o),
+					OrderQuery::merge));
+		}
+		Map<String, Stats> result = new TreeMap<>();
+		partial.forEach((k, v) -> result.merge(label(by, k), v, Stats::merge));
+		return result;
+	}
+
+	// n nhom co chi so lon nhat, giam dan
+	public List<Map.Entry<String, Stats>> top(Collection<Order> source, GroupBy by, Metric metric, int n) {
+		return top(source.parallelStream(), by, metric, n);
+	}
+
+	public List<Map.Entry<String, Stats>> top(Stream<Order> source, GroupBy by, Metric metric, int n) {
+		Comparator<Map.Entry<String, Stats>> order = Comparator.comparingDouble(e -> metric.of(e.getValue()));
+		PriorityQueue<Map.Entry<String, Stats>> heap = new PriorityQueue<>(order); // dau = nhom nho nhat dang giu
+		for (Map.Entry<String, Stats> e : groupBy(source, by).entrySet()) {
+			if (n <= 0) break;
+			if (heap.size() < n) heap.add(new AbstractMap.SimpleImmutableEntry<>(e));
+			else if (metric.of(e.getValue()) > metric.of(heap.peek().getValue())) {
+				heap.poll();
+				heap.add(new AbstractMap.SimpleImmutableEntry<>(e));
+			}
+		}
+		List<Map.Entry<String, Stats>> result = new ArrayList<>(heap);
+		result.sort(order.reversed());
+		return result;
+	}
+
+	private static Map<Object, Stats> merge(Map<Object, Stats> a, Map<Object, Stats> b) {
+		if (a.size() < b.size()) {
+			Map<Object, Stats> t = a;
+			a = b;
+			b = t;
+		}
+		for (Map.Entry<Object, Stats> e : b.entrySet()) a.merge(e.getKey(), e.getValue(), Stats::merge);
+		return a;
+	}
+
+	// khoa nhom: ma (String, ko tao chuoi moi neu da viet hoa) hoac so (ngay/thang/nam)
+	private static Object key(GroupBy by, Order o) {
+		switch (by) {
+			case MENU: return o.getMenuId() == null ? "" : o.getMenuId().toUpperCase(Locale.ROOT);
+			case CUSTOMER: return o.getCustomerId() == null ? "" : o.getCustomerId().toUpperCase(Locale.ROOT);
+			default:
+				int day = o.getEpochDay();
+				if (day == Dates.NO_DATE) return Dates.NO_DATE;
+				if (by == GroupBy.DAY) return day;
+				LocalDate d = LocalDate.ofEpochDay(day);
+				return by == GroupBy.MONTH ? d.getYear() * 100 + d.getMonthValue() : d.getYear();
+		}
+	}
+
+	private static String label(GroupBy by, Object key) {
+		if (key instanceof String) return (String) key;
+		int k = (Integer) key;
+		if (k == Dates.NO_DATE) return "?";
+		switch (by) {
+			case DAY: return LocalDate.ofEpochDay(k).format(Dates.ISO);
+			case MONTH: return String.format("%04d-%02d", k / 100, k % 100);
+			default: return String.valueOf(k);
+		}
+	}
+}
@@ -4,92 +4,568 @@
  */
 package com.mycompany.lab1.bussiness;
 
+import com.mycompany.lab1.model.Customer;
 import com.mycompany.lab1.model.Order;
 import com.mycompany.lab1.model.SetMenu;
+import com.mycompany.lab1.tools.Codecs;
+import com.mycompany.lab1.tools.Dates;
 import com.mycompany.lab1.tools.FileUtils;
-import java.lang.invoke.MethodHandles;
+import com.mycompany.lab1.tools.Journal;
+import com.mycompany.lab1.tools.OrderCodeGenerator;
+import com.mycompany.lab1.tools.RecordReader;
+import com.mycompany.lab1.tools.TableRenderer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 
 public class Orders extends ArrayList<Order> implements Workable<Order>{
+	// ly do tu choi dat tiec (tryAddNew), lop goi dua vao do de chon cach bao loi
+	public static final String NO_CUSTOMER = "id KH ko ton tai";
+	public static final String NO_MENU = "id Menu ko ton tai";
+	public static final String DUPLICATE = "KH da dat thuc don nay cho ngay nay roi";
+
 	private String pathFile;
-	private boolean isSaved;
+	private volatile boolean isSaved;
+	private Journal<Order> journal; // ghi them tung don, ko ghi lai ca file
+	private int maxInMemory;        // so don cu toi da giu trong RAM khi nap
+	private int archivedCount;      // so don chi con nam trong file
+	// ma don da huy, co the van con trong file .dat; compact xong thi bo (thread ghi nen sua nen dung set concurrent)
+	private final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+	private final CapacityEngine capacity = new CapacityEngine(); // so ban con trong theo ngay
+	private final LiveCounters counters = new LiveCounters();     // so lieu dashboard, cap nhat khi them/sua/huy
+
+	// Index tren cac don trong RAM, chi sua qua put/remove de luon khop voi list.
+	// ma don (viet hoa) -> vi tri + cac khoa da index
+	private Map<String, Slot> codeIndex = new HashMap<>();
+	private Map<String, List<Order>> byCustomer = new HashMap<>();
+	private Map<String, List<Order>> byMenu = new HashMap<>();
+	private NavigableMap<LocalDate, List<Order>> byDate = new TreeMap<>();
+	// KH -> menu -> cac ngay da dat (ma da viet hoa), check trung ko tao object nao
+	private Map<String, Map<String, DayCounts>> dupIndex = new HashMap<>();
+
+	// Luu lai khoa luc index: Order co the bi sua bang setter truoc khi goi update,
+	// khi do phai go don cu khoi index theo khoa cu chu ko phai khoa hien tai
+	private static class Slot {
+		private int pos;
+		private String customer;
+		private String menu;
+		private LocalDate day;
+		private int epochDay;   // ngay + so ban da giu cho trong CapacityEngine
+		private int tables;
+		private long totalVnd;  // tien da cong vao LiveCounters (cung voi epochDay, menu, tables)
+
+		Slot(int pos) {
+			this.pos = pos;
+		}
+	}
+
+	// cac ngay 1 cap (KH, menu) da dat + so don moi ngay, mang sap xep tang dan.
+	// 1 cap thuong chi co vai ngay nen tim nhi phan/chen bang arraycopy la du nhanh.
+	private static final class DayCounts {
+		private int[] days = new int[2];
+		private int[] counts = new int[2];
+		private int size;
+
+		boolean contains(int day) {
+			return Arrays.binarySearch(days, 0, size, day) >= 0;
+		}
+
+		void add(int day) {
+			int i = Arrays.binarySearch(days, 0, size, day);
+			if (i >= 0) {
+				counts[i]++;
+				return;
+			}
+			i = -i - 1;
+			if (size == days.length) {
+				days = Arrays.copyOf(days, size * 2);
+				counts = Arrays.copyOf(counts, size * 2);
+			}
+			System.arraycopy(days, i, days, i + 1, size - i);
+			System.arraycopy(counts, i, counts, i + 1, size - i);
+			days[i] = day;
+			counts[i] = 1;
+			size++;
+		}
+
+		// tra ve true neu ko con ngay nao
+		boolean remove(int day) {
+			int i = Arrays.binarySearch(days, 0, size, day);
+			if (i < 0) return size == 0;
+			if (--counts[i] == 0) {
+				System.arraycopy(days, i + 1, days, i, size - i - 1);
+				System.arraycopy(counts, i + 1, counts, i, size - i - 1);
+				size--;
+			}
+			return size == 0;
+		}
+	}
 
 	public Orders() {
-		this.pathFile = "data/orders.dat";
+		this(Integer.MAX_VALUE);
+	}
+
+	// maxInMemory: chi giu cac don gan nhat trong RAM, don cu hon van nam trong orders.dat
+	// (doc qua streamHistory(), searchById/update chi tim trong RAM)
+	public Orders(int maxInMemory) {
+		this("data/orders.dat", maxInMemory);
+	}
+
+	// file khac data/orders.dat (vd: benchmark, ko dung chung du lieu that)
+	public Orders(String pathFile, int maxInMemory) {
+		this.pathFile = pathFile;
 		this.isSaved = true;
+		this.maxInMemory = maxInMemory;
+		this.journal = new Journal<>(pathFile, Codecs.ORDER, 1000);
 		this.readFromFile(); // nap du lieu khi khoi tao luon
 	}
 	
 	
-	public void addNew(Order order, Customers listKH, FeastMenus listMenu){
-		if (listKH.searchById(order.getCustomerId()) == null){
-			System.out.println("Loi: id KH ko ton tai");
+	public void addNew(Order order, Workable<Customer> listKH, FeastMenus listMenu){
+		String error = tryAddNew(order, listKH, listMenu);
+		if (error != null){
+			System.out.println("Loi: " + error);
 			return;
 		}
+		System.out.println("Dat tiec thanh cong!");
 		
-		if (listMenu.getMenuById(order.getMenuId()) == null){
-			System.out.println("Loi: id Menu ko ton tai");
-			return;
+	}
+	
+	// Dat tiec ko in gi (HTTP server, chay lenh hang loat); tra ve ly do loi, null = da dat
+	public String tryAddNew(Order order, Workable<Customer> listKH, FeastMenus listMenu){
+		return tryAddNew(order, listKH, listMenu, false);
+	}
+
+	// reserved = true: nguoi goi da giu ban (ConcurrentOrders giu truoc khi lay khoa ghi)
+	// va tu tra lai neu bi tu choi
+	String tryAddNew(Order order, Workable<Customer> listKH, FeastMenus listMenu, boolean reserved){
+		String error = place(order, listKH, listMenu, reserved);
+		if (error != null) return error;
+		isSaved = false;
+		log(Journal.ADD, order);
+		return null;
+	}
+	
+	// Dat nhieu don 1 lan (nhap file): ko in tung dong, journal chi flush 1 lan.
+	// Tra ve ly do loi cua tung don (null = da dat).
+	public String[] addBatch(List<Order> batch, Workable<Customer> listKH, FeastMenus listMenu){
+		String[] errors = new String[batch.size()];
+		List<Order> added = new ArrayList<>(batch.size());
+		for (int i = 0; i < batch.size(); i++){
+			errors[i] = place(batch.get(i), listKH, listMenu, false);
+			if (errors[i] == null) added.add(batch.get(i));
 		}
+		if (!added.isEmpty()){
+			isSaved = false;
+			journal.appendAll(Journal.ADD, added);
+			if (journal.needCompact(this.size())) compactAsync();
+		}
+		return errors;
+	}
+	
+	// kiem tra, tinh tien, sinh ma va them vao RAM (chua ghi journal); tra ve ly do loi, null = ok
+	private String place(Order order, Workable<Customer> listKH, FeastMenus listMenu, boolean reserved){
+		if (listKH.searchById(order.getCustomerId()) == null)
+			return NO_CUSTOMER;
 		
+		// lay menu 1 lan: thuc don co the duoc nap lai giua 2 lan goi
 		SetMenu menu = listMenu.getMenuById(order.getMenuId());
-		double total = order.getNumOfTables() * menu.getPrice();
-		order.setTotalCost(total);
+		if (menu == null)
+			return NO_MENU;
 		
-		order.generateCode(); // QUAN TRONG:
-		this.add(order);
-		isSaved = false;
-		System.out.println("Dat tiec thanh cong!");
+		if (isDuplicate(order))
+			return DUPLICATE;
+		
+		if (!reserved && !reserve(order))
+			return noCapacity(order.getEpochDay());
 		
+		long total = Math.round(order.getNumOfTables() * menu.getPrice());
+		order.setTotalVnd(total);
+		
+		order.generateCode(); // QUAN TRONG:
+		if (codeIndex.containsKey(key(order.getOrderCode()))){
+			if (!reserved) release(order.getEpochDay(), order.getNumOfTables());
+			return "ma don da ton tai, vui long thu lai";
+		}
+		put(order);
+		return null;
 	}
 	
 	public void saveToFile(){
-		ArrayList<Order> o= new ArrayList<>(this);
-		FileUtils.saveToFile(o, pathFile);
+		saveToFileAsync().join();
+	}
 
-		isSaved = true;
+	// Luu o thread nen, tra ve future (true = ghi thanh cong) de ai can thi cho
+	public CompletableFuture<Boolean> saveToFileAsync(){
+		// ghi snapshot moi (don cu trong file + don trong RAM) va xoa journal da gom vao
+		return compactAsync().thenApply(ok -> {
+			if (ok) isSaved = true;
+			return ok;
+		});
 	}
 
+	// Doc file theo kieu stream: chi giu maxInMemory don cuoi trong RAM.
+	// Don co thay doi trong journal luon duoc giu lai, vi file .dat chua co ban moi cua no.
 	public void readFromFile(){
-		List<Order> o = FileUtils.readFromFile(pathFile);
-		if (o != null){
+		// journal: orderCode -> ban moi nhat, theo thu tu xuat hien; don bi huy thi bo
+		Map<String, Order> changed = new LinkedHashMap<>();
+		Set<String> removed = new HashSet<>();
+		for (Journal.Entry<Order> e : journal.readAll()) {
+			String k = key(e.getData().getOrderCode());
+			if (e.getOp() == Journal.CANCEL) {
+				changed.remove(k);
+				removed.add(k);
+			}
+			else {
+				changed.put(k, e.getData());
+				removed.remove(k);
+			}
+		}
+
+		ArrayDeque<Order> recent = new ArrayDeque<>();
+		int archived = 0;
+		Map<Integer, Integer> archivedTables = new HashMap<>(); // ngay -> so ban cua don chi con trong file
+		LiveCounters archivedNow = new LiveCounters();
+		try (RecordReader<Order> reader = FileUtils.openReader(pathFile, Codecs.ORDER)) {
+			while (reader.hasNext()) {
+				Order o = reader.next();
+				if (removed.contains(key(o.getOrderCode()))) continue;
+				Order newer = changed.remove(key(o.getOrderCode()));
+				if (newer != null) {
+					changed.put(key(newer.getOrderCode()), newer); // giu lai, them vao cuoi
+					continue;
+				}
+				recent.addLast(o);
+				if (recent.size() > maxInMemory) {
+					Order old = recent.removeFirst();
+					if (old.getEpochDay() != Order.NO_DATE) archivedTables.merge(old.getEpochDay(), old.getNumOfTables(), Integer::sum);
+					archivedNow.add(old);
+					archived++;
+				}
+			}
+		}
+		catch (IOException | UncheckedIOException e) {
+			System.err.println("Error reading file: " + e.getMessage());
+			return;
+		}
+
+		// dem lai so lieu dashboard trong 1 lan ghi: snapshot ko thay luc dang nap do dang
+		counters.begin();
+		try {
 			this.clear();
-			this.addAll(o);
+			codeIndex.clear();
+			byCustomer.clear();
+			byMenu.clear();
+			byDate.clear();
+			dupIndex.clear();
+			counters.clear();
+			counters.addAll(archivedNow);
+			for (Order o : recent) put(o);
+			for (Order o : changed.values()) put(o);
+		}
+		finally {
+			counters.end();
+		}
+		// dem lai so ban da dat theo ngay: don trong file + don trong RAM
+		capacity.clear();
+		archivedTables.forEach(capacity::add);
+		for (Order o : this) {
+			if (o.getEpochDay() != Order.NO_DATE) capacity.add(o.getEpochDay(), o.getNumOfTables());
+		}
+		// ma moi luon lon hon ma da co (don cu chi con trong file ko can, ma cua no nho hon)
+		for (Order o : this) OrderCodeGenerator.getDefault().observe(o.getOrderCode());
+		this.archivedCount = archived;
+		cancelled.clear();
+		cancelled.addAll(removed);
+	}
+
+	// So don cu chi con nam trong file (ko nap vao RAM)
+	public int getArchivedCount() {
+		return archivedCount;
+	}
+
+	// Toan bo lich su don (file + RAM) doc theo kieu stream, ko nap het vao RAM.
+	// Dung trong try-with-resources de dong file.
+	public Stream<Order> streamHistory() {
+		return history().stream();
+	}
+
+	// Nap toan bo lich su (file + RAM) vao kho theo cot de thong ke
+	public OrderColumnStore toColumnStore() {
+		OrderColumnStore store = new OrderColumnStore();
+		try (Stream<Order> s = streamHistory()) {
+			s.forEach(store::addNew);
+		}
+		return store;
+	}
+
+	// chup lai RAM + danh sach don da huy tren thread goi
+	private OrderHistory history() {
+		return new OrderHistory(new ArrayList<>(this), new HashSet<>(cancelled));
+	}
+
+	// Gom journal vao snapshot moi. Ghi xong thi snapshot ko con cac don da huy luc chup,
+	// bo ma cua chung khoi cancelled de set nay ko lon mai.
+	private CompletableFuture<Boolean> compactAsync() {
+		Set<String> gone = new HashSet<>(cancelled);
+		return journal.compactAsync(new OrderHistory(new ArrayList<>(this), new HashSet<>(gone))).thenApply(ok -> {
+			if (ok) cancelled.removeAll(gone);
+			return ok;
+		});
+	}
+
+	// don trong file ma ko co trong RAM (ban trong RAM la ban moi hon) va chua bi huy + copy RAM.
+	// Duyet duoc nhieu lan (FileUtils.writeToFile duyet 2 lan)
+	private class OrderHistory implements Iterable<Order> {
+		private List<Order> copy;
+		private Set<String> codes; // ma don ko lay tu file: don trong RAM + don da huy
+		private boolean ready;     // da them ma don trong RAM vao codes chua
+
+		OrderHistory(List<Order> copy, Set<String> cancelled) {
+			this.copy = copy;
+			this.codes = cancelled;
 		}
+
+		Stream<Order> stream() {
+			if (archivedCount == 0) return copy.stream();
+			if (!ready) {
+				for (Order o : copy) codes.add(key(o.getOrderCode()));
+				ready = true;
+			}
+			Stream<Order> archived = FileUtils.stream(pathFile, Codecs.ORDER)
+					.filter(o -> !codes.contains(key(o.getOrderCode())));
+			return Stream.concat(archived, copy.stream());
+		}
+
+		@Override
+		public Iterator<Order> iterator() {
+			return stream().iterator();
+		}
+	}
+
+	// ghi 1 ban ghi vao journal, qua nguong thi compact o thread nen
+	private void log(char op, Order order) {
+		journal.append(op, order);
+		if (journal.needCompact(this.size())) {
+			compactAsync();
+		}
+	}
+
+	// ma don/KH/menu so sanh ko phan biet hoa thuong
+	private static String key(String code) {
+		return code.toUpperCase(Locale.ROOT);
+	}
+
+	// them moi hoac thay don cung ma, giu cac index khop voi list
+	private void put(Order order) {
+		String k = key(order.getOrderCode());
+		Slot slot = codeIndex.get(k);
+		counters.begin(); // sua don: bo so lieu cu + them so lieu moi la 1 lan ghi
+		try {
+			if (slot != null) {
+				Order old = this.get(slot.pos);
+				unindex(slot, old);
+				counters.remove(slot.epochDay, slot.menu, slot.tables, slot.totalVnd); // gia tri luc them, ko doc lai tu old
+				this.set(slot.pos, order);
+			}
+			else {
+				slot = new Slot(this.size());
+				codeIndex.put(k, slot);
+				this.add(order);
+			}
+			slot.customer = order.getCustomerId() == null ? null : key(order.getCustomerId());
+			slot.menu = order.getMenuId() == null ? null : key(order.getMenuId());
+			int epochDay = order.getEpochDay();
+			slot.epochDay = epochDay;
+			slot.tables = order.getNumOfTables();
+			slot.totalVnd = order.getTotalVnd();
+			slot.day = Dates.toLocalDate(epochDay);
+			dupIndex.computeIfAbsent(slot.customer, x -> new HashMap<>()).computeIfAbsent(slot.menu, x -> new DayCounts()).add(epochDay);
+			if (slot.customer != null) byCustomer.computeIfAbsent(slot.customer, x -> new ArrayList<>()).add(order);
+			if (slot.menu != null) byMenu.computeIfAbsent(slot.menu, x -> new ArrayList<>()).add(order);
+			if (slot.day != null) byDate.computeIfAbsent(slot.day, x -> new ArrayList<>()).add(order);
+			counters.add(slot.epochDay, slot.menu, slot.tables, slot.totalVnd);
+		}
+		finally {
+			counters.end();
+		}
+	}
+
+	// go don khoi cac index theo khoa da luu trong slot
+	private void unindex(Slot slot, Order order) {
+		removeFrom(byCustomer, slot.customer, order);
+		removeFrom(byMenu, slot.menu, order);
+		removeFrom(byDate, slot.day, order);
+		Map<String, DayCounts> menus = dupIndex.get(slot.customer);
+		DayCounts days = menus == null ? null : menus.get(slot.menu);
+		if (days != null && days.remove(slot.epochDay)) {
+			menus.remove(slot.menu);
+			if (menus.isEmpty()) dupIndex.remove(slot.customer);
+		}
+	}
+
+	// xoa dung object (so sanh ==, vi Order.equals la check trung customer+menu+ngay)
+	private static <K> void removeFrom(Map<K, List<Order>> index, K k, Order order) {
+		if (k == null) return;
+		List<Order> list = index.get(k);
+		if (list == null) return;
+		for (int i = list.size() - 1; i >= 0; i--) {
+			if (list.get(i) == order) {
+				list.remove(i);
+				break;
+			}
+		}
+		if (list.isEmpty()) index.remove(k);
+	}
+
+	// Huy don theo ma: xoa khoi RAM, cac index va ghi vao journal.
+	// Vi tri cac don phia sau giam 1 nen huy la O(N), nhung huy don it xay ra.
+	public boolean cancel(String code) {
+		String error = tryCancel(code);
+		if (error != null) {
+			System.out.println("Loi: " + error);
+			return false;
+		}
+		System.out.println("Huy Order thanh cong!");
+		return true;
+	}
+
+	// Huy don ko in gi (chay lenh hang loat); tra ve ly do loi, null = da huy
+	public String tryCancel(String code) {
+		Slot slot = code == null ? null : codeIndex.remove(key(code));
+		if (slot == null) return "khong tim thay Order";
+		Order order = this.remove(slot.pos);
+		unindex(slot, order);
+		release(slot.epochDay, slot.tables);
+		counters.remove(slot.epochDay, slot.menu, slot.tables, slot.totalVnd);
+		for (Slot s : codeIndex.values()) {
+			if (s.pos > slot.pos) s.pos--;
+		}
+		cancelled.add(key(code));
+		isSaved = false;
+		log(Journal.CANCEL, order);
+		return null;
+	}
+
+	// So ban con trong theo ngay (tinh ca don chi con trong file)
+	public CapacityEngine getCapacity() {
+		return capacity;
+	}
+
+	// So lieu dashboard (tinh ca don chi con trong file), doc tu thread khac duoc
+	public LiveCounters getCounters() {
+		return counters;
+	}
+
+	// giu ban cho don (don chua co ngay thi ko tinh)
+	boolean reserve(Order order) {
+		return order.getEpochDay() == Order.NO_DATE || capacity.reserve(order.getEpochDay(), order.getNumOfTables());
+	}
+
+	String noCapacity(int epochDay) {
+		return "ngay nay chi con " + Math.max(0, capacity.remaining(epochDay)) + " ban trong";
+	}
+
+	void release(int epochDay, int tables) {
+		if (epochDay != Order.NO_DATE) capacity.release(epochDay, tables);
+	}
+
+	private boolean move(int oldDay, int oldTables, int newDay, int newTables) {
+		if (newDay == Order.NO_DATE) {
+			release(oldDay, oldTables);
+			return true;
+		}
+		if (oldDay == Order.NO_DATE) return capacity.reserve(newDay, newTables);
+		return capacity.move(oldDay, oldTables, newDay, newTables);
+	}
+
+	// Cac don cua 1 KH (trong RAM), theo thu tu dat
+	public List<Order> findByCustomer(String customerId) {
+		return copyOf(customerId == null ? null : byCustomer.get(key(customerId)));
+	}
+
+	// Cac don dat 1 thuc don (trong RAM), theo thu tu dat
+	public List<Order> findByMenu(String menuId) {
+		return copyOf(menuId == null ? null : byMenu.get(key(menuId)));
+	}
+
+	// Cac don to chuc trong ngay
+	public List<Order> findByDate(LocalDate date) {
+		return copyOf(date == null ? null : byDate.get(date));
+	}
+
+	// Cac don to chuc tu ngay from den ngay to (tinh ca 2 dau), sap xep theo ngay
+	public List<Order> findByDateRange(LocalDate from, LocalDate to) {
+		List<Order> result = new ArrayList<>();
+		if (from == null || to == null || from.isAfter(to)) return result;
+		for (List<Order> list : byDate.subMap(from, true, to, true).values()) {
+			result.addAll(list);
+		}
+		return result;
+	}
+
+	private static List<Order> copyOf(Collection<Order> list) {
+		return list == null ? new ArrayList<>() : new ArrayList<>(list);
 	}
 
 	// Implement Workable<T> interface
 
 	@Override
 	public void addNew(Order x) {
-		this.add(x);
+		if (codeIndex.containsKey(key(x.getOrderCode()))) {
+			System.out.println("Loi: ma don da ton tai");
+			return;
+		}
+		if (!reserve(x)) {
+			System.out.println("Loi: ngay nay chi con " + capacity.remaining(x.getEpochDay()) + " ban trong");
+			return;
+		}
+		put(x);
 		isSaved = false;
+		log(Journal.ADD, x);
 	}
 
 	@Override
 	public void update(Order x) {
-		for (int i = 0; i < this.size(); i++) {
-			Order o = this.get(i);
-			if (o.getOrderCode().equalsIgnoreCase(x.getOrderCode())) {
-				this.set(i, x);
-				isSaved = false;
-				System.out.println("Cap nhat Order thanh cong!");
-				return;
-			}
+		Slot slot = codeIndex.get(key(x.getOrderCode()));
+		if (slot == null) {
+			System.out.println("Loi: khong tim thay Order");
+			return;
 		}
-		System.out.println("Loi: khong tim thay Order");
+		// doi ngay/so ban: giu cho moi truoc, du ban moi tra cho cu
+		if (!move(slot.epochDay, slot.tables, x.getEpochDay(), x.getNumOfTables())) {
+			System.out.println("Loi: ngay nay chi con " + capacity.remaining(x.getEpochDay()) + " ban trong");
+			return;
+		}
+		put(x); // doi KH/menu/ngay thi cac index cung doi theo
+		isSaved = false;
+		log(Journal.UPDATE, x);
+		System.out.println("Cap nhat Order thanh cong!");
 	}
 
 	@Override
 	public Order searchById(String id) {
-		for (Order o : this) {
-			if (o.getOrderCode().equalsIgnoreCase(id)) {
-				return o;
-			}
-		}
-		return null;
+		if (id == null) return null;
+		Slot slot = codeIndex.get(key(id));
+		return slot == null ? null : this.get(slot.pos);
 	}
 
 	@Override
@@ -99,14 +575,17 @@ public class Orders extends ArrayList<Order> implements Workable<Order>{
 			return;
 		}
 
-		for (Order o : this) {
-			System.out.println(o);
-		}
+		TableRenderer.forOrders().render(this.stream());
 	}
 
-	// Kiem tra trung Order (customerId + menuId + eventDate)
+	// Kiem tra trung Order (customerId + menuId + ngay eventDate), ko phan biet hoa thuong.
+	// Ma da viet hoa (thuong gap) thi key() tra ve chinh chuoi do: ko tao object nao.
 	public boolean isDuplicate(Order order) {
-		return this.contains(order);  // Goi equals() da override trong Order
+		String customer = order.getCustomerId() == null ? null : key(order.getCustomerId());
+		Map<String, DayCounts> menus = dupIndex.get(customer);
+		if (menus == null) return false;
+		DayCounts days = menus.get(order.getMenuId() == null ? null : key(order.getMenuId()));
+		return days != null && days.contains(order.getEpochDay());
 	}
 
 
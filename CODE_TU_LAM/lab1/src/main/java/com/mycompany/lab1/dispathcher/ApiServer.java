@@ -0,0 +1,480 @@
+package com.mycompany.lab1.dispathcher;
+
+import com.mycompany.lab1.bussiness.*;
+import com.mycompany.lab1.model.*;
+import com.mycompany.lab1.tools.*;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP API (JSON) cho Customers / FeastMenus / Orders, chay bang: java ... Main --server [port]
+ *   POST   /customers              {"id","name","phone","email"}  dang ky KH
+ *   PUT    /customers/{id}         {"name","phone","email"}       cap nhat KH
+ *   GET    /customers/{id}
+ *   GET    /customers?name=an&limit=20                            tim theo 1 phan ten
+ *   GET    /menus                                                 thuc don theo gia
+ *   POST   /orders                 {"customerId","menuId","tables","date":"2026-12-01"}
+ *                                   400 KH/menu ko ton tai, 409 trung don/het ban
+ *   GET    /orders/{code}
+ *   GET    /orders?customer=C0001 | ?menu=PW001 | ?from=2026-12-01&to=2026-12-31 | ?limit=100
+ *   DELETE /orders/{code}                                         huy don
+ *   GET    /reports?groupBy=menu|customer|day|month|year&from=&to=&customer=&menu=&minTables=
+ *           &top=10&metric=count|total|avg_total|tables|avg_tables  thong ke tren toan bo lich su
+ *   GET    /stats?date=2026-12-01                                 so lieu dashboard (hom nay, thang nay, theo menu)
+ * Dung HttpServer co san trong JDK. Moi request 1 virtual thread neu JVM co (Java 21+),
+ * ko thi dung thread pool. Du lieu dung chung qua ConcurrentCustomers/ConcurrentOrders.
+ * Moi request in 1 dong log: method, duong dan, ma tra ve, so byte, thoi gian xu ly.
+ */
+public class ApiServer {
+	private static final int DEFAULT_LIMIT = 100;
+
+	private final ConcurrentCustomers customers;
+	private final FeastMenus menus;
+	private final ConcurrentOrders orders;
+	private HttpServer server;
+	private ExecutorService executor;
+	private String executorName;
+
+	public ApiServer(ConcurrentCustomers customers, FeastMenus menus, ConcurrentOrders orders) {
+		this.customers = customers;
+		this.menus = menus;
+		this.orders = orders;
+	}
+
+	public void start(int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		route("/customers", this::customers);
+		route("/menus", this::menus);
+		route("/orders", this::orders);
+		route("/reports", this::reports);
+		route("/stats", this::stats);
+		executor = newExecutor();
+		server.setExecutor(executor);
+		server.start();
+		System.out.println("API dang chay tai http://localhost:" + port + " (" + executorName + ")");
+	}
+
+	// cong dang nghe (start(0) thi he dieu hanh tu chon cong)
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	public void stop() {
+		if (server != null) server.stop(1);
+		if (executor != null) executor.shutdown();
+	}
+
+	// Java 21+: 1 virtual thread / request; Java 17 (ko co API nay): cached thread pool
+	private ExecutorService newExecutor() {
+		try {
+			ExecutorService ex = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			executorName = "virtual threads";
+			return ex;
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			executorName = "thread pool";
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	// ===== Khung xu ly chung =====
+
+	private static class Response {
+		private final int status;
+		private final String body;
+
+		Response(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+	}
+
+	private interface Handler {
+		Response handle(Request req) throws IOException;
+	}
+
+	// method + cac phan cua duong dan + tham so query + body
+	private static class Request {
+		private final HttpExchange ex;
+		private final String method;
+		private final String id;                 // /customers/{id}, null neu ko co
+		private final Map<String, String> query;
+
+		Request(HttpExchange ex, String base) {
+			this.ex = ex;
+			this.method = ex.getRequestMethod();
+			String path = ex.getRequestURI().getPath();
+			String rest = path.length() > base.length() + 1 ? path.substring(base.length() + 1) : "";
+			this.id = rest.isEmpty() ? null : decode(rest);
+			this.query = parseQuery(ex.getRequestURI().getRawQuery());
+		}
+
+		Map<String, String> body() throws IOException {
+			try (InputStream in = ex.getRequestBody()) {
+				return Json.parseObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	// createContext khop theo tien to (/customers ca voi /customersXYZ): chi nhan dung base hoac base/...
+	private void route(String base, Handler handler) {
+		server.createContext(base, ex -> {
+			long start = System.nanoTime();
+			String path = ex.getRequestURI().getPath();
+			Response res;
+			try {
+				if (path.equals(base) || path.startsWith(base + "/")) res = handler.handle(new Request(ex, base));
+				else res = error(404, "Khong tim thay " + path);
+			}
+			catch (IllegalArgumentException e) {
+				res = new Response(400, Json.error(e.getMessage()));
+			}
+			catch (Exception e) {
+				// chi tiet loi ghi log phia server, ko tra ve cho client
+				System.err.println("Loi khi xu ly " + ex.getRequestMethod() + " " + ex.getRequestURI() + ":");
+				e.printStackTrace();
+				res = error(500, "Loi server");
+			}
+			byte[] bytes = res.body.getBytes(StandardCharsets.UTF_8);
+			try {
+				ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+				ex.sendResponseHeaders(res.status, bytes.length);
+				try (OutputStream out = ex.getResponseBody()) {
+					out.write(bytes);
+				}
+			}
+			finally {
+				ex.close();
+				System.out.printf("%s %s %d %dB %.3fms%n", ex.getRequestMethod(), ex.getRequestURI(),
+						res.status, bytes.length, (System.nanoTime() - start) / 1e6);
+			}
+		});
+	}
+
+	private static Response ok(String json) {
+		return new Response(200, json);
+	}
+
+	private static Response error(int status, String message) {
+		return new Response(status, Json.error(message));
+	}
+
+	private static Response methodNotAllowed(Request req) {
+		return error(405, "Khong ho tro " + req.method);
+	}
+
+	// ===== /customers =====
+
+	private Response customers(Request req) throws IOException {
+		switch (req.method) {
+			case "GET":
+				if (req.id != null) {
+					Customer c = customers.searchById(req.id);
+					return c == null ? error(404, "Khong tim thay KH " + req.id) : ok(toJson(new StringBuilder(), c).toString());
+				}
+				String name = req.query.get("name");
+				if (name == null) throw new IllegalArgumentException("Can tham so name");
+				return ok(customerList(customers.filterByName(name, limit(req))));
+
+			case "POST": {
+				Map<String, String> body = req.body();
+				Customer c = new Customer(require(body, "id", Acceptable.CUS_ID_VALID),
+						require(body, "name", Acceptable.NAME_VALID),
+						require(body, "phone", Acceptable.PHONE_VALID),
+						require(body, "email", Acceptable.EMAIL_VALID));
+				if (customers.tryAddNew(c) != null) return error(409, "Ma KH da ton tai: " + c.getId());
+				return new Response(201, toJson(new StringBuilder(), c).toString());
+			}
+
+			case "PUT": {
+				if (req.id == null) throw new IllegalArgumentException("Thieu ma KH tren duong dan");
+				if (customers.searchById(req.id) == null) return error(404, "Khong tim thay KH " + req.id);
+				Map<String, String> body = req.body();
+				Customer c = new Customer(customers.searchById(req.id).getId(),
+						require(body, "name", Acceptable.NAME_VALID),
+						require(body, "phone", Acceptable.PHONE_VALID),
+						require(body, "email", Acceptable.EMAIL_VALID));
+				if (customers.tryUpdate(c) != null) return error(404, "Khong tim thay KH " + req.id);
+				return ok(toJson(new StringBuilder(), c).toString());
+			}
+
+			default:
+				return methodNotAllowed(req);
+		}
+	}
+
+	// ===== /menus =====
+
+	private Response menus(Request req) {
+		if (!req.method.equals("GET")) return methodNotAllowed(req);
+		if (req.id != null) {
+			SetMenu m = menus.getMenuById(req.id);
+			return m == null ? error(404, "Khong tim thay thuc don " + req.id) : ok(toJson(new StringBuilder(), m).toString());
+		}
+		StringBuilder sb = new StringBuilder("[");
+		for (SetMenu m : menus.getAllByPrice()) {
+			if (sb.length() > 1) sb.append(',');
+			toJson(sb, m);
+		}
+		return ok(sb.append(']').toString());
+	}
+
+	// ===== /orders =====
+
+	private Response orders(Request req) throws IOException {
+		switch (req.method) {
+			case "GET": {
+				if (req.id != null) {
+					Order o = orders.searchById(req.id);
+					return o == null ? error(404, "Khong tim thay don " + req.id) : ok(toJson(new StringBuilder(), o).toString());
+				}
+				List<Order> list;
+				if (req.query.containsKey("customer")) list = orders.findByCustomer(req.query.get("customer"));
+				else if (req.query.containsKey("menu")) list = orders.findByMenu(req.query.get("menu"));
+				else if (req.query.containsKey("from") || req.query.containsKey("to"))
+					list = orders.findByDateRange(date(req.query.get("from")), date(req.query.get("to")));
+				else list = orders.snapshot();
+				return ok(orderList(list, limit(req)));
+			}
+
+			case "POST":
+				return placeOrder(req.body());
+
+			case "DELETE":
+				if (req.id == null) throw new IllegalArgumentException("Thieu ma don tren duong dan");
+				return orders.tryCancel(req.id) == null ? ok("{\"cancelled\":" + Json.quote(new StringBuilder(), req.id) + "}")
+						: error(404, "Khong tim thay don " + req.id);
+
+			default:
+				return methodNotAllowed(req);
+		}
+	}
+
+	// ===== /reports =====
+
+	private Response reports(Request req) {
+		if (!req.method.equals("GET")) return methodNotAllowed(req);
+		Map<String, String> q = req.query;
+		OrderQuery query = new OrderQuery()
+				.from(q.containsKey("from") ? date(q.get("from")) : null)
+				.to(q.containsKey("to") ? date(q.get("to")) : null)
+				.customer(q.get("customer"))
+				.menu(q.get("menu"));
+		if (q.containsKey("minTables")) query.minTables(number(q.get("minTables"), "minTables"));
+
+		String groupBy = q.get("groupBy");
+		if (groupBy == null) {
+			return ok(toJson(new StringBuilder(), null, query.summary(orders.streamHistory())).toString());
+		}
+		OrderQuery.GroupBy by = option(OrderQuery.GroupBy.class, groupBy, "groupBy");
+		StringBuilder sb = new StringBuilder("[");
+		if (q.containsKey("top")) {
+			OrderQuery.Metric metric = option(OrderQuery.Metric.class, q.getOrDefault("metric", "total"), "metric");
+			for (Map.Entry<String, OrderQuery.Stats> e : query.top(orders.streamHistory(), by, metric, number(q.get("top"), "top"))) {
+				if (sb.length() > 1) sb.append(',');
+				toJson(sb, e.getKey(), e.getValue());
+			}
+		}
+		else {
+			for (Map.Entry<String, OrderQuery.Stats> e : query.groupBy(orders.streamHistory(), by).entrySet()) {
+				if (sb.length() > 1) sb.append(',');
+				toJson(sb, e.getKey(), e.getValue());
+			}
+		}
+		return ok(sb.append(']').toString());
+	}
+
+	// ===== /stats =====
+
+	// doc bo dem LiveCounters, ko quet lai don
+	private Response stats(Request req) {
+		if (!req.method.equals("GET")) return methodNotAllowed(req);
+		LocalDate day = req.query.containsKey("date") ? date(req.query.get("date")) : LocalDate.now(Dates.ZONE);
+		LiveCounters.Snapshot s = orders.getCounters().snapshot();
+		StringBuilder sb = new StringBuilder("{\"version\":").append(s.getVersion());
+		toJson(sb.append(",\"total\":"), s.getTotal());
+		toJson(sb.append(",\"day\":"), s.getDay(day));
+		toJson(sb.append(",\"month\":"), s.getMonth(YearMonth.from(day)));
+		sb.append(",\"menus\":{");
+		boolean first = true;
+		for (Map.Entry<String, LiveCounters.Totals> e : s.getByMenu().entrySet()) {
+			if (!first) sb.append(',');
+			first = false;
+			toJson(Json.quote(sb, e.getKey()).append(':'), e.getValue());
+		}
+		return ok(sb.append("}}").toString());
+	}
+
+	// ConcurrentOrders.tryAddNew kiem tra KH/menu/so ban/trung va tra ve ly do tu choi
+	private Response placeOrder(Map<String, String> body) {
+		String customerId = require(body, "customerId", Acceptable.CUS_ID_VALID);
+		String menuId = require(body, "menuId", Acceptable.MENU_ID_VALID);
+		String tablesText = require(body, "tables", Acceptable.INTEGER_VALID);
+		int day = Dates.toEpochDay(date(require(body, "date", null)));
+		int tables;
+		try {
+			tables = Integer.parseInt(tablesText);
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("tables qua lon");
+		}
+
+		Order order = new Order();
+		order.setCustomerId(customerId);
+		order.setMenuId(menuId);
+		order.setNumOfTables(tables);
+		order.setEpochDay(day);
+		String error = orders.tryAddNew(order, customers, menus);
+		if (error != null) return error(rejectStatus(error), error);
+		return new Response(201, toJson(new StringBuilder(), order).toString());
+	}
+
+	// KH/menu ko ton tai: du lieu gui len sai (400); trung don, het ban: xung dot voi don da co (409)
+	private static int rejectStatus(String error) {
+		return error.equals(Orders.NO_CUSTOMER) || error.equals(Orders.NO_MENU) ? 400 : 409;
+	}
+
+	// ===== Doc tham so =====
+
+	private static String require(Map<String, String> body, String field, String pattern) {
+		String value = body.get(field);
+		if (value == null) throw new IllegalArgumentException("Thieu truong " + field);
+		if (pattern != null && !Acceptable.isValid(value, pattern))
+			throw new IllegalArgumentException("Truong " + field + " khong hop le: " + value);
+		return value;
+	}
+
+	private static LocalDate date(String text) {
+		if (text == null) throw new IllegalArgumentException("Thieu ngay (yyyy-MM-dd)");
+		try {
+			return LocalDate.parse(text, Dates.ISO);
+		}
+		catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Ngay khong hop le (yyyy-MM-dd): " + text);
+		}
+	}
+
+	private static int limit(Request req) {
+		String text = req.query.get("limit");
+		if (text == null) return DEFAULT_LIMIT;
+		try {
+			int n = Integer.parseInt(text);
+			if (n > 0) return n;
+		}
+		catch (NumberFormatException e) {
+			// bao loi ben duoi
+		}
+		throw new IllegalArgumentException("limit khong hop le: " + text);
+	}
+
+	private static int number(String text, String field) {
+		if (text == null || !Validator.isPositiveInt(text) || text.length() > 9)
+			throw new IllegalArgumentException(field + " khong hop le: " + text);
+		return Integer.parseInt(text);
+	}
+
+	private static <E extends Enum<E>> E option(Class<E> type, String text, String field) {
+		try {
+			return Enum.valueOf(type, text.toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(field + " khong hop le: " + text + ", chon: "
+					+ Arrays.toString(type.getEnumConstants()).toLowerCase(Locale.ROOT));
+		}
+	}
+
+	private static Map<String, String> parseQuery(String raw) {
+		Map<String, String> map = new HashMap<>();
+		if (raw == null || raw.isEmpty()) return map;
+		for (String pair : raw.split("&")) {
+			int eq = pair.indexOf('=');
+			if (eq < 0) map.put(decode(pair), "");
+			else map.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+		}
+		return map;
+	}
+
+	private static String decode(String s) {
+		return URLDecoder.decode(s, StandardCharsets.UTF_8);
+	}
+
+	// ===== Ghi JSON =====
+
+	private static String customerList(List<Customer> list) {
+		StringBuilder sb = new StringBuilder("[");
+		for (Customer c : list) {
+			if (sb.length() > 1) sb.append(',');
+			toJson(sb, c);
+		}
+		return sb.append(']').toString();
+	}
+
+	// toi da limit don cuoi cung (moi nhat)
+	private static String orderList(List<Order> list, int limit) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = Math.max(0, list.size() - limit); i < list.size(); i++) {
+			if (sb.length() > 1) sb.append(',');
+			toJson(sb, list.get(i));
+		}
+		return sb.append(']').toString();
+	}
+
+	private static StringBuilder toJson(StringBuilder sb, Customer c) {
+		sb.append("{\"id\":");
+		Json.quote(sb, c.getId()).append(",\"name\":");
+		Json.quote(sb, c.getName()).append(",\"phone\":");
+		Json.quote(sb, c.getPhone()).append(",\"email\":");
+		return Json.quote(sb, c.getEmail()).append('}');
+	}
+
+	private static StringBuilder toJson(StringBuilder sb, SetMenu m) {
+		sb.append("{\"id\":");
+		Json.quote(sb, m.getMenuId()).append(",\"name\":");
+		Json.quote(sb, m.getMenuName()).append(",\"price\":").append(Math.round(m.getPrice())).append(",\"ingredients\":");
+		return Json.quote(sb, m.getIngredients()).append('}');
+	}
+
+	// group null = tong hop, ko ghi truong group
+	private static StringBuilder toJson(StringBuilder sb, String group, OrderQuery.Stats s) {
+		sb.append('{');
+		if (group != null) Json.quote(sb.append("\"group\":"), group).append(',');
+		sb.append("\"count\":").append(s.getCount())
+				.append(",\"total\":").append(s.getTotalVnd())
+				.append(",\"avgTotal\":").append(Math.round(s.getAvgTotal()))
+				.append(",\"tables\":").append(s.getTables())
+				.append(",\"avgTables\":").append(Math.round(s.getAvgTables() * 100) / 100.0);
+		return sb.append('}');
+	}
+
+	private static StringBuilder toJson(StringBuilder sb, LiveCounters.Totals t) {
+		return sb.append("{\"count\":").append(t.getCount())
+				.append(",\"revenue\":").append(t.getRevenue())
+				.append(",\"tables\":").append(t.getTables()).append('}');
+	}
+
+	private static StringBuilder toJson(StringBuilder sb, Order o) {
+		sb.append("{\"code\":");
+		Json.quote(sb, o.getOrderCode()).append(",\"customerId\":");
+		Json.quote(sb, o.getCustomerId()).append(",\"menuId\":");
+		Json.quote(sb, o.getMenuId()).append(",\"tables\":").append(o.getNumOfTables()).append(",\"date\":");
+		LocalDate d = o.getEventLocalDate();
+		Json.quote(sb, d == null ? null : Dates.ISO.format(d)).append(",\"total\":").append(o.getTotalVnd());
+		return sb.append('}');
+	}
+}
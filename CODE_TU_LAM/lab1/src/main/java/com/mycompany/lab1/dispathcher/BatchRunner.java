@@ -0,0 +1,159 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.dispathcher;
+
+import com.mycompany.lab1.bussiness.BulkImporter;
+import com.mycompany.lab1.bussiness.Customers;
+import com.mycompany.lab1.bussiness.FeastMenus;
+import com.mycompany.lab1.bussiness.Orders;
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.tools.SnapshotWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Chay lenh tu file / pipe, ko hoi dap (script, tao tai thu):
+ *   register C0001,Nguyen Van A,0912345678,a@x.com
+ *   update   C0001,Nguyen Van B,0912345678,b@x.com
+ *   order    C0001,PW002,5,2026-12-01
+ *   cancel   <ma don>
+ *   save
+ * Dong trong / bat dau bang # bo qua. Cot cung dinh dang voi file nhap (BulkImporter).
+ * Cac lenh register/order lien tiep duoc gom lai them 1 lan (journal flush 1 lan),
+ * thu tu thuc hien van dung thu tu trong file.
+ * Moi lenh in 1 dong "so dong OK/ERR lenh ..." qua bo dem lon, cuoi cung in tong ket + toc do.
+ */
+public class BatchRunner {
+	private static final int MAX_GROUP = 1024;
+
+	private final Customers customers;
+	private final FeastMenus menus;
+	private final Orders orders;
+	private final PrintWriter out;
+
+	// lenh register/order dang gom, chua chay
+	private final List<Customer> pendingCustomers = new ArrayList<>();
+	private final List<Order> pendingOrders = new ArrayList<>();
+	private final List<Integer> pendingLines = new ArrayList<>();
+
+	private int total;
+	private int ok;
+
+	public BatchRunner(Customers customers, FeastMenus menus, Orders orders) {
+		this.customers = customers;
+		this.menus = menus;
+		this.orders = orders;
+		this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+	}
+
+	public void run(BufferedReader in) throws IOException {
+		long start = System.nanoTime();
+		String line;
+		int lineNo = 0;
+		while ((line = in.readLine()) != null) {
+			lineNo++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) continue;
+			execute(lineNo, line);
+		}
+		flushPending();
+		SnapshotWriter.flushAll();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		out.printf("Tong: %d lenh, %d OK, %d loi, %.3f s (%.0f lenh/s)%n", total, ok, total - ok, seconds,
+				seconds == 0 ? 0.0 : total / seconds);
+		out.flush();
+	}
+
+	private void execute(int lineNo, String line) {
+		int space = line.indexOf(' ');
+		String command = (space < 0 ? line : line.substring(0, space)).toLowerCase(Locale.ROOT); // ko theo Locale may (tr: I -> ı)
+		String rest = space < 0 ? "" : line.substring(space + 1).trim();
+
+		// lenh khac loai voi nhom dang gom thi chay nhom truoc de giu thu tu
+		if (!command.equals("register") && !pendingCustomers.isEmpty()) flushPending();
+		if (!command.equals("order") && !pendingOrders.isEmpty()) flushPending();
+
+		try {
+			switch (command) {
+				case "register":
+					pendingCustomers.add(BulkImporter.parseCustomer(BulkImporter.split(rest)));
+					pendingLines.add(lineNo);
+					if (pendingCustomers.size() >= MAX_GROUP) flushPending();
+					return;
+				case "order":
+					pendingOrders.add(BulkImporter.parseOrder(BulkImporter.split(rest)));
+					pendingLines.add(lineNo);
+					if (pendingOrders.size() >= MAX_GROUP) flushPending();
+					return;
+				case "update": {
+					Customer c = BulkImporter.parseCustomer(BulkImporter.split(rest));
+					report(lineNo, command, c.getId(), customers.tryUpdate(c));
+					return;
+				}
+				case "cancel":
+					if (rest.isEmpty()) throw new IllegalArgumentException("thieu ma don");
+					report(lineNo, command, rest, orders.tryCancel(rest));
+					return;
+				case "save":
+					boolean saved = customers.saveToFileAsync()
+							.thenCombine(orders.saveToFileAsync(), (ok1, ok2) -> ok1 && ok2).join();
+					report(lineNo, command, "", saved ? null : "luu file that bai");
+					return;
+				default:
+					report(lineNo, command, "", "lenh khong hop le");
+			}
+		}
+		catch (IllegalArgumentException e) {
+			flushPending(); // in ket qua cac dong truoc roi moi den dong loi
+			report(lineNo, command, rest, e.getMessage());
+		}
+	}
+
+	// chay nhom register/order dang gom, in ket qua theo thu tu dong
+	private void flushPending() {
+		if (!pendingCustomers.isEmpty()) {
+			String[] errors = customers.addBatch(pendingCustomers);
+			for (int i = 0; i < errors.length; i++) {
+				report(pendingLines.get(i), "register", pendingCustomers.get(i).getId(), errors[i]);
+			}
+			pendingCustomers.clear();
+		}
+		if (!pendingOrders.isEmpty()) {
+			String[] errors = orders.addBatch(pendingOrders, customers, menus);
+			for (int i = 0; i < errors.length; i++) {
+				Order o = pendingOrders.get(i);
+				report(pendingLines.get(i), "order", errors[i] == null ? o.getCustomerId() + " -> " + o.getOrderCode()
+						: o.getCustomerId(), errors[i]);
+			}
+			pendingOrders.clear();
+		}
+		pendingLines.clear();
+	}
+
+	private void report(int lineNo, String command, String target, String error) {
+		total++;
+		if (error == null) ok++;
+		out.print(lineNo);
+		out.print(error == null ? " OK " : " ERR ");
+		out.print(command);
+		if (!target.isEmpty()) {
+			out.print(' ');
+			out.print(target);
+		}
+		if (error != null) {
+			out.print(": ");
+			out.print(error);
+		}
+		out.println();
+	}
+}
@@ -3,13 +3,11 @@ package com.mycompany.lab1.dispathcher;
 import com.mycompany.lab1.bussiness.*;
 import com.mycompany.lab1.model.*;
 import com.mycompany.lab1.tools.*;
-import java.util.Scanner;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 public class Main {
-    // Dung Scanner rieng de quan ly Menu
-    private static final Scanner sc = new Scanner(System.in);
-    
+    private static final int PAGE_SIZE = 20; // so don moi trang khi xem danh sach
     // Khoi tao cac doi tuong nghiep vu
     private static final Customers listKH = new Customers();
     private static final FeastMenus listMenu = new FeastMenus();
@@ -19,12 +17,75 @@ public class Main {
         // 1. Nap du lieu tu file khi khoi dong
         listKH.readFromFile();
         listOrder.readFromFile();
+
+        // --import customers|orders <file.csv>: nhap hang loat roi thoat
+        if (args.length > 0 && args[0].equals("--import")) {
+            runImport(args);
+            return;
+        }
+        // --batch <file|->: chay lenh tu file / pipe, ko hoi dap
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args.length > 1 ? args[1] : "-");
+            return;
+        }
         // listMenu da tu nap trong constructor cua FeastMenus
+        listMenu.startWatching(); // sua FeastMenu.csv thi tu nap lai, ko can khoi dong lai
+
+        // --server [port]: chay HTTP API thay cho menu dong lenh
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer(args.length > 1 ? Integer.parseInt(args[1]) : 8080);
+            return;
+        }
 
         // 2. Chay chuong trinh
         runMenu();
     }
 
+    // Chay HTTP API tren du lieu da nap; tat chuong trinh (Ctrl+C) thi cho ghi file xong
+    private static void runServer(int port) {
+        ApiServer server = new ApiServer(new ConcurrentCustomers(listKH), listMenu, new ConcurrentOrders(listOrder));
+        try {
+            server.start(port);
+        } catch (java.io.IOException e) {
+            System.out.println("Khong mo duoc cong " + port + ": " + e.getMessage());
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            SnapshotWriter.flushAll();
+        }));
+    }
+
+    // Nhap CSV tu doi tac, luu file roi in bao cao
+    private static void runImport(String[] args) {
+        if (args.length < 3 || !(args[1].equals("customers") || args[1].equals("orders"))) {
+            System.out.println("Cach dung: --import customers|orders <file.csv>");
+            return;
+        }
+        BulkImporter importer = new BulkImporter(listKH, listOrder, listMenu);
+        try {
+            BulkImporter.Report report = args[1].equals("customers")
+                    ? importer.importCustomers(args[2])
+                    : importer.importOrders(args[2]);
+            CompletableFuture.allOf(listKH.saveToFileAsync(), listOrder.saveToFileAsync()).join();
+            System.out.println(report);
+        } catch (java.io.IOException e) {
+            System.out.println("Khong doc duoc file " + args[2] + ": " + e.getMessage());
+        }
+    }
+
+    // Doc lenh tu file ("-" = System.in), in trang thai tung lenh va toc do
+    private static void runBatch(String source) {
+        BatchRunner runner = new BatchRunner(listKH, listMenu, listOrder);
+        try (java.io.BufferedReader in = source.equals("-")
+                ? new java.io.BufferedReader(new java.io.InputStreamReader(System.in, java.nio.charset.StandardCharsets.UTF_8), 1 << 16)
+                : java.nio.file.Files.newBufferedReader(java.nio.file.Paths.get(source))) {
+            runner.run(in);
+        } catch (java.io.IOException e) {
+            System.out.println("Khong doc duoc " + source + ": " + e.getMessage());
+        }
+    }
+
     private static void runMenu() {
         int choice;
         do {
@@ -39,7 +100,9 @@ public class Main {
             System.out.print("Select: ");
 
             try {
-                choice = Integer.parseInt(sc.nextLine());
+                // doc chung Scanner voi Inputter; het input (Ctrl+D, pipe) thi thoat
+                String line = Inputter.nextLine();
+                choice = line == null ? 0 : Integer.parseInt(line);
                 processChoice(choice);
             } catch (Exception e) {
                 System.out.println("Loi: Vui long chi nhap so tu 0-6!");
@@ -56,7 +119,10 @@ public class Main {
             case 4: addNewOrder(); break;
             case 5: saveData(); break;
             case 6: showOrders(); break;
-            case 0: System.out.println("Goodbye!"); break;
+            case 0:
+                SnapshotWriter.flushAll(); // cho cac lan luu dang ghi o thread nen
+                System.out.println("Goodbye!");
+                break;
         }
     }
 
@@ -66,7 +132,7 @@ public class Main {
         // Tan dung Inputter static va Regex tu Acceptable
         String id = Inputter.getValidString("ID (Cxxxx): ", Acceptable.CUS_ID_VALID); 
         String name = Inputter.getValidString("Name (2-25 chars): ", Acceptable.NAME_VALID);
-        String phone = Inputter.getValidString("Phone (0+9 digits): ", Acceptable.PHONE_VALID);
+        String phone = Inputter.getValidString("Phone (0+9 digits, VN carrier): ", Acceptable.PHONE_VALID);
         String email = Inputter.getValidString("Email: ", Acceptable.EMAIL_VALID);
 
         listKH.addNew(new Customer(id, name, phone, email));
@@ -83,7 +149,7 @@ public class Main {
             c.setName(Inputter.getValidString("New Name: ", Acceptable.NAME_VALID));
             c.setPhone(Inputter.getValidString("New Phone: ", Acceptable.PHONE_VALID));
             c.setEmail(Inputter.getValidString("New Email: ", Acceptable.EMAIL_VALID));
-            System.out.println("Updated successfully!");
+            listKH.update(c); // ghi thay doi vao journal
         }
     }
 
@@ -122,11 +188,14 @@ public class Main {
         listOrder.addNew(ord, listKH, listMenu);
     }
 
-    // Chuc nang 5: Luu vao file dat
+    // Chuc nang 5: Luu vao file dat (ghi o thread nen, ko bat nguoi dung cho)
     private static void saveData() {
-        listKH.saveToFile();
-        listOrder.saveToFile();
-        System.out.println("All data saved to binary files!");
+        CompletableFuture<Boolean> kh = listKH.saveToFileAsync();
+        CompletableFuture<Boolean> order = listOrder.saveToFileAsync();
+        kh.thenCombine(order, (ok1, ok2) -> ok1 && ok2).thenAccept(ok -> {
+            if (ok) System.out.println("All data saved to binary files!");
+        });
+        System.out.println("Saving in background...");
     }
 
     // Chuc nang 6: Hien thi danh sach don hang
@@ -136,8 +205,36 @@ public class Main {
             return;
         }
         System.out.println("\n--- ORDER LIST ---");
-        for (Order o : listOrder) {
-            System.out.println(o); // Goi toString() cua Order
+        TableRenderer<Order> table = TableRenderer.forOrders();
+        if (listOrder.size() <= PAGE_SIZE) {
+            table.render(listOrder.stream());
+            return;
+        }
+
+        // nhieu don: chon cach sap xep roi xem tung trang
+        System.out.print("Sort by " + table.getSortKeys() + " (Enter = order placed): ");
+        String key = Inputter.nextLine();
+        key = key == null ? null : key.trim();
+        if (key != null && !key.isEmpty() && !table.hasSortKey(key)) {
+            System.out.println("Unknown sort key, showing in order placed.");
+            key = null;
+        }
+        int page = 1;
+        while (true) {
+            int total = table.render(listOrder.stream(), key, PAGE_SIZE, page);
+            int pages = (total + PAGE_SIZE - 1) / PAGE_SIZE;
+            System.out.print("Enter = next page, page number = jump, q = back: ");
+            String answer = Inputter.nextLine();
+            if (answer == null || answer.trim().equalsIgnoreCase("q")) break;
+            answer = answer.trim();
+            if (answer.isEmpty()) {
+                if (page >= pages) break;
+                page++;
+            } else if (Validator.isPositiveInt(answer) && answer.length() < 10) {
+                page = Math.min(Integer.parseInt(answer), pages);
+            } else {
+                System.out.println("Invalid!");
+            }
         }
     }
 }
\ No newline at end of file
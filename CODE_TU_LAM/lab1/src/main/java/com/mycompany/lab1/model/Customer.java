@@ -9,6 +9,9 @@ package com.mycompany.lab1.model;
  * @author Admin
  */
 public class Customer implements  java.io.Serializable{
+	// co dinh UID de van doc duoc file .dat cu (ban dau chua khai bao)
+	private static final long serialVersionUID = -7478952635463385044L;
+
 	
 	private String id;
     private String name;
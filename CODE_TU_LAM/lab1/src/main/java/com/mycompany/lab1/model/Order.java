@@ -4,43 +4,77 @@
  */
 package com.mycompany.lab1.model;
 
-import java.text.SimpleDateFormat;
+import com.mycompany.lab1.tools.Dates;
+import com.mycompany.lab1.tools.OrderCodeGenerator;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.Objects;
 
 /**
- *
+ * Ngay to chuc luu bang so ngay (epoch day, int), tien luu bang so nguyen VND (long):
+ * so sanh/check trung ko tao object, cong doanh thu hang trieu don ko bi sai so.
+ * Date/double chi dung o ria (nhap tu Main, doc file cu).
  * @author Admin
  */
 public class Order implements java.io.Serializable{
+	// co dinh UID de van doc duoc file .dat cu (ban dau chua khai bao)
+	private static final long serialVersionUID = -1838863249127250823L;
+	public static final int NO_DATE = Dates.NO_DATE; // epoch day khi chua co ngay
+
+	// Java serialization van ghi/doc cac truong cu (eventDate: Date, totalCost: double)
+	// de file .dat/journal cu doc duoc va ban cu van doc duoc file moi
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("orderCode", String.class),
+		new ObjectStreamField("customerId", String.class),
+		new ObjectStreamField("menuId", String.class),
+		new ObjectStreamField("numOfTables", int.class),
+		new ObjectStreamField("eventDate", Date.class),
+		new ObjectStreamField("totalCost", double.class)
+	};
+
 	private String orderCode;
     private String customerId;
     private String menuId;
     private int numOfTables;
-    private Date eventDate;
-	private double totalCost;
+    private int eventDay = NO_DATE;  // so ngay tu 1970-01-01
+	private long totalVnd;           // tong tien, don vi VND
 
 	public Order() {
 	}
 
 	public Order(String orderCode, String customerId, String menuId, int numOfTables, Date eventDate, double totalCost) {
+		this(orderCode, customerId, menuId, numOfTables, Dates.toEpochDay(eventDate), Math.round(totalCost));
+	}
+
+	public Order(String orderCode, String customerId, String menuId, int numOfTables, int eventDay, long totalVnd) {
 		this.orderCode = orderCode;
 		this.customerId = customerId;
 		this.menuId = menuId;
 		this.numOfTables = numOfTables;
-		this.eventDate = eventDate;
-		this.totalCost = totalCost;
+		this.eventDay = eventDay;
+		this.totalVnd = totalVnd;
 	}
 
 	public double getTotalCost() {
-		return totalCost;
+		return totalVnd;
 	}
 
+	// lam tron ve dong
 	public void setTotalCost(double totalCost) {
-		this.totalCost = totalCost;
+		this.totalVnd = Math.round(totalCost);
 	}
 
-	
+	public long getTotalVnd() {
+		return totalVnd;
+	}
+
+	public void setTotalVnd(long totalVnd) {
+		this.totalVnd = totalVnd;
+	}
 
 	public String getOrderCode() {
 		return orderCode;
@@ -74,21 +108,53 @@ public class Order implements java.io.Serializable{
 		this.numOfTables = numOfTables;
 	}
 
+	// Date moi (0h ngay to chuc), sua Date tra ve ko anh huong Order
 	public Date getEventDate() {
-		return eventDate;
+		return Dates.toDate(eventDay);
 	}
 
+	// chi lay ngay, bo gio phut
 	public void setEventDate(Date eventDate) {
-		this.eventDate = eventDate;
+		this.eventDay = Dates.toEpochDay(eventDate);
+	}
+
+	public LocalDate getEventLocalDate() {
+		return Dates.toLocalDate(eventDay);
+	}
+
+	// ngay to chuc theo mui gio may, NO_DATE neu chua co ngay
+	public int getEpochDay() {
+		return eventDay;
+	}
+
+	public void setEpochDay(int eventDay) {
+		this.eventDay = eventDay;
 	}
 	
 	public void generateCode() {
-		// lay thoi gian ngay bay gio
-		 Date now = new Date(); 
-		 // chon dinh dang tu nam den giay
-		 SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMddHHmmss"); 
-		 // bien thoi gian thanh string
-		 this.orderCode = sdf.format(now); 
+		// ma ko trung ke ca khi 2 don dat cung 1 giay, tang dan theo thoi gian dat
+		this.orderCode = OrderCodeGenerator.getDefault().nextCode(); 
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField f = out.putFields();
+		f.put("orderCode", orderCode);
+		f.put("customerId", customerId);
+		f.put("menuId", menuId);
+		f.put("numOfTables", numOfTables);
+		f.put("eventDate", getEventDate());
+		f.put("totalCost", (double) totalVnd);
+		out.writeFields();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField f = in.readFields();
+		orderCode = (String) f.get("orderCode", null);
+		customerId = (String) f.get("customerId", null);
+		menuId = (String) f.get("menuId", null);
+		numOfTables = f.get("numOfTables", 0);
+		eventDay = Dates.toEpochDay((Date) f.get("eventDate", null));
+		totalVnd = Math.round(f.get("totalCost", 0.0));
 	}
 
 	@Override
@@ -107,31 +173,25 @@ public class Order implements java.io.Serializable{
 		if (!Objects.equals(this.menuId, order.menuId)) 
 			return false; 
 
-		// check trung bang ngay thang nam
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd"); 
-		String date1 = sdf.format(this.eventDate);
-		String date2 = sdf.format(order.eventDate);
-		if (!Objects.equals(date1, date2)) 
-			return false; 
-
-		return true; 
+		// check trung bang ngay thang nam (so ngay, ko tao object)
+		return this.eventDay == order.eventDay; 
 	}
 
 	
 	// config hashcode
 	@Override
 	public int hashCode() {
-		// check bang ngay-thang-nam
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd"); 
-		return Objects.hash(customerId, menuId, sdf.format(eventDate)); 
+		// check bang ngay-thang-nam, ko dung Objects.hash (tao mang moi lan goi)
+		int h = Objects.hashCode(customerId);
+		h = 31 * h + Objects.hashCode(menuId);
+		return 31 * h + eventDay; 
 	}
 	
 	@Override
 	public String toString() {
-		SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-		String ngayThangNam = sdf.format(eventDate);
-		return String.format("| %-15s | %-10s | %-10s | %-10d | %-12s | %12.0f |", 
-				orderCode, customerId, menuId, numOfTables, ngayThangNam, totalCost);
+		String ngayThangNam = Dates.format(eventDay);
+		return String.format("| %-15s | %-10s | %-10s | %-10d | %-12s | %12d |", 
+				orderCode, customerId, menuId, numOfTables, ngayThangNam, totalVnd);
 	}
 	
 	
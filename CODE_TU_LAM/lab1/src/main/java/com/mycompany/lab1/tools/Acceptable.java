@@ -11,21 +11,19 @@ package com.mycompany.lab1.tools;
 public interface Acceptable {
 	String CUS_ID_VALID = "^[CcGgKk]\\d{4}$";      // C/G/K + 4 digits
     String NAME_VALID = "^.{2,25}$";                // 2-25 chars
-    String PHONE_VALID = "^0\\d{9}$";               // 0 + 9 digits
+    String PHONE_VALID = "^0\\d{9}$";               // 0 + 9 digits, dau so thuoc nha mang (CarrierTrie)
     String EMAIL_VALID = "^[\\w.-]+@[\\w.-]+[.][a-zA-Z]{2,}$";
     String MENU_ID_VALID = "^PW\\d{3}$";            // PW + 3 digits
 	String INTEGER_VALID = "^[1-9]\\d*"; // So nguyen duong, khong bat dau bang 0
 
+    // ko dung data.matches(pattern) nua: moi lan goi la bien dich lai regex
     static boolean isValid(String data, String pattern) {
         // keep data dont null
 		if (data == null) 
 			return false; 
 		
-		// check with pattern
-		if (data.matches(pattern) == true)
-			return true;
-		else
-			return false;
+		// check with pattern (mau co san kiem tra tay, mau khac dung Pattern da bien dich)
+		return Validator.matches(data, pattern);
     }
 	
 	
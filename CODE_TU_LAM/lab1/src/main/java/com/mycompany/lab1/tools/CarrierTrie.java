@@ -0,0 +1,149 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cay tien to (trie) dau so -> nha mang VN.
+ * Moi nut co 10 con (chu so 0-9), luu phang trong 1 mang int: next[nut * 10 + chu so].
+ * classify di 1 lan tren so dien thoai, ko tao doi tuong nao, lay nha mang cua tien to dai nhat.
+ * Nguon dau so la data/carriers.csv (dong "dau so,nha mang", # la ghi chu): co file thi chi dung file,
+ * them/bo dau so thi sua file, ko can build lai. DEFAULTS chi dung khi file ko co, doc loi hoac rong.
+ */
+public final class CarrierTrie {
+	public static final String PATH = "data/carriers.csv";
+
+	// du phong khi ko doc duoc data/carriers.csv: ban sao cua file luc phat hanh
+	// (dau so di dong 10 so sau chuyen doi 2018), CarrierTrieTest kiem tra 2 ban con khop
+	private static final String[][] DEFAULTS = {
+		{"Viettel", "032", "033", "034", "035", "036", "037", "038", "039", "086", "096", "097", "098"},
+		{"Vinaphone", "081", "082", "083", "084", "085", "088", "091", "094"},
+		{"Mobifone", "070", "076", "077", "078", "079", "089", "090", "093"},
+		{"Vietnamobile", "052", "056", "058", "092"},
+		{"Gmobile", "059", "099"},
+		{"Itelecom", "087"},
+		{"Reddi", "055"},
+	};
+
+	private int[] next = new int[16 * 10]; // 0 = ko co con (nut goc la 0, ko ai tro ve goc)
+	private short[] carrierOf = new short[16]; // chi so trong carriers + 1, 0 = ko phai dau so
+	private int nodes = 1;
+	private final List<String> carriers = new ArrayList<>();
+
+	private static volatile CarrierTrie defaultTrie;
+
+	// bang dung chung, nap lan dau can dung
+	public static CarrierTrie getDefault() {
+		CarrierTrie t = defaultTrie;
+		if (t == null) {
+			synchronized (CarrierTrie.class) {
+				t = defaultTrie;
+				if (t == null) defaultTrie = t = load(Paths.get(PATH));
+			}
+		}
+		return t;
+	}
+
+	public static CarrierTrie defaults() {
+		CarrierTrie t = new CarrierTrie();
+		for (String[] row : DEFAULTS) {
+			for (int i = 1; i < row.length; i++) t.add(row[i], row[0]);
+		}
+		return t;
+	}
+
+	// doc file dau so; file ko co / loi thi dung bang mac dinh
+	public static CarrierTrie load(Path file) {
+		if (!Files.isReadable(file)) return defaults();
+		CarrierTrie t = new CarrierTrie();
+		try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			int lineNo = 0;
+			while ((line = in.readLine()) != null) {
+				lineNo++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) continue;
+				int comma = line.indexOf(',');
+				String prefix = comma < 0 ? "" : line.substring(0, comma).trim();
+				String carrier = comma < 0 ? "" : line.substring(comma + 1).trim();
+				if (prefix.isEmpty() || carrier.isEmpty() || !t.add(prefix, carrier)) {
+					System.out.println("Bo qua dong " + lineNo + " trong " + file + ": " + line);
+				}
+			}
+		}
+		catch (IOException e) {
+			System.out.println("Loi doc " + file + ", dung bang dau so mac dinh: " + e.getMessage());
+			return defaults();
+		}
+		return t.nodes == 1 ? defaults() : t;
+	}
+
+	// them dau so (chi chu so); sai thi false
+	public boolean add(String prefix, String carrier) {
+		for (int i = 0; i < prefix.length(); i++) {
+			if (digit(prefix.charAt(i)) < 0) return false;
+		}
+		int id = carriers.indexOf(carrier);
+		if (id < 0) {
+			carriers.add(carrier);
+			id = carriers.size() - 1;
+		}
+		int node = 0;
+		for (int i = 0; i < prefix.length(); i++) {
+			int slot = node * 10 + digit(prefix.charAt(i));
+			if (next[slot] == 0) {
+				int child = newNode(); // co the cap lai mang next, gan sau
+				next[slot] = child;
+			}
+			node = next[slot];
+		}
+		carrierOf[node] = (short) (id + 1);
+		return true;
+	}
+
+	private int newNode() {
+		if (nodes == carrierOf.length) {
+			carrierOf = Arrays.copyOf(carrierOf, nodes * 2);
+			next = Arrays.copyOf(next, nodes * 2 * 10);
+		}
+		return nodes++;
+	}
+
+	/**
+	 * Nha mang cua so dien thoai (tien to dai nhat khop), null neu ko thuoc nha mang nao
+	 * hoac co ky tu ko phai chu so. Ko kiem tra do dai.
+	 */
+	public String classify(CharSequence phone) {
+		int node = 0;
+		int found = 0;
+		for (int i = 0; i < phone.length(); i++) {
+			int d = digit(phone.charAt(i));
+			if (d < 0) return null;
+			if (node >= 0) {
+				node = next[node * 10 + d];
+				if (node == 0) node = -1; // het nhanh, chi con kiem tra chu so
+				else if (carrierOf[node] != 0) found = carrierOf[node];
+			}
+		}
+		return found == 0 ? null : carriers.get(found - 1);
+	}
+
+	public List<String> getCarriers() {
+		return List.copyOf(carriers);
+	}
+
+	private static int digit(char c) {
+		return c >= '0' && c <= '9' ? c - '0' : -1;
+	}
+}
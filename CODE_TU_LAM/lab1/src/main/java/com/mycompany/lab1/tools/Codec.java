@@ -0,0 +1,30 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Ma hoa/giai ma 1 doi tuong sang nhi phan (thay cho writeObject/readObject)
+ * Cac cai dat co san nam trong Codecs (CUSTOMER, ORDER, SET_MENU)
+ * @param <T> - Loai du lieu (Customer, Order, SetMenu)
+ */
+public interface Codec<T> {
+	// Dua cac chuoi hay lap lai (customerId, menuId...) vao bang chuoi truoc khi ghi
+	void collect(T item, StringTable table);
+
+	// Ghi 1 doi tuong
+	void write(DataOutput out, T item, StringTable table) throws IOException;
+
+	// Doc 1 doi tuong (dinh dang hien tai, FileUtils.SCHEMA_VERSION)
+	T read(DataInput in, StringTable table) throws IOException;
+
+	// Doc 1 doi tuong ghi boi version cu hon; codec nao co doi field thi override
+	default T read(DataInput in, StringTable table, int version) throws IOException {
+		return read(in, table);
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.model.SetMenu;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cac Codec cho model + ham ghi/doc so nguyen, chuoi dung chung.
+ * Chuoi: [do dai + 1 dang varint][bytes UTF-8], do dai 0 = null.
+ * Khi them/doi field thi tang FileUtils.SCHEMA_VERSION va doc theo version.
+ */
+public class Codecs {
+	public static final Codec<Customer> CUSTOMER = new CustomerCodec();
+	public static final Codec<Order> ORDER = new OrderCodec();
+	public static final Codec<SetMenu> SET_MENU = new SetMenuCodec();
+
+	private static final long OLD_NO_DATE = Long.MIN_VALUE; // version <= 2: don chua co ngay
+
+	private static class CustomerCodec implements Codec<Customer> {
+		@Override
+		public void collect(Customer item, StringTable table) {
+			// id KH ko lap lai, ko can dua vao bang
+		}
+
+		@Override
+		public void write(DataOutput out, Customer c, StringTable table) throws IOException {
+			writeString(out, c.getId());
+			writeString(out, c.getName());
+			writeString(out, c.getPhone());
+			writeString(out, c.getEmail());
+		}
+
+		@Override
+		public Customer read(DataInput in, StringTable table) throws IOException {
+			return new Customer(readString(in), readString(in), readString(in), readString(in));
+		}
+	}
+
+	private static class OrderCodec implements Codec<Order> {
+		@Override
+		public void collect(Order item, StringTable table) {
+			table.add(item.getCustomerId());
+			table.add(item.getMenuId());
+		}
+
+		@Override
+		public void write(DataOutput out, Order o, StringTable table) throws IOException {
+			writeString(out, o.getOrderCode());
+			table.writeRef(out, o.getCustomerId());
+			table.writeRef(out, o.getMenuId());
+			writeVarInt(out, o.getNumOfTables());
+			// ngay = epoch day (ko phu thuoc mui gio may), tien = so VND nguyen
+			writeSignedVarInt(out, o.getEpochDay());
+			out.writeLong(o.getTotalVnd());
+		}
+
+		@Override
+		public Order read(DataInput in, StringTable table) throws IOException {
+			return read(in, table, FileUtils.SCHEMA_VERSION);
+		}
+
+		@Override
+		public Order read(DataInput in, StringTable table, int version) throws IOException {
+			String code = readString(in);
+			String customerId = table.readRef(in);
+			String menuId = table.readRef(in);
+			int tables = readVarInt(in);
+			if (version < 3) {
+				// version 1-2: ngay = millis luc 0h theo mui gio may ghi, tien = double
+				long time = in.readLong();
+				double total = in.readDouble();
+				int day = time == OLD_NO_DATE ? Order.NO_DATE : Dates.toEpochDay(time);
+				return new Order(code, customerId, menuId, tables, day, Math.round(total));
+			}
+			int day = readSignedVarInt(in);
+			return new Order(code, customerId, menuId, tables, day, in.readLong());
+		}
+	}
+
+	private static class SetMenuCodec implements Codec<SetMenu> {
+		@Override
+		public void collect(SetMenu item, StringTable table) {
+		}
+
+		@Override
+		public void write(DataOutput out, SetMenu m, StringTable table) throws IOException {
+			writeString(out, m.getMenuId());
+			writeString(out, m.getMenuName());
+			out.writeLong(Math.round(m.getPrice())); // gia la so VND nguyen
+			writeString(out, m.getIngredients());
+		}
+
+		@Override
+		public SetMenu read(DataInput in, StringTable table) throws IOException {
+			return read(in, table, FileUtils.SCHEMA_VERSION);
+		}
+
+		@Override
+		public SetMenu read(DataInput in, StringTable table, int version) throws IOException {
+			String id = readString(in);
+			String name = readString(in);
+			double price = version < 3 ? in.readDouble() : in.readLong();
+			return new SetMenu(id, name, price, readString(in));
+		}
+	}
+
+	// so nguyen khong am, 7 bit/byte: so nho (so ban, do dai chuoi) chi ton 1 byte
+	public static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	public static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return value;
+		}
+		throw new IOException("VarInt qua dai");
+	}
+
+	// so nguyen co dau (zigzag): -1 -> 1, 1 -> 2, so gan 0 ton it byte
+	public static void writeSignedVarInt(DataOutput out, int value) throws IOException {
+		writeVarInt(out, (value << 1) ^ (value >> 31));
+	}
+
+	public static int readSignedVarInt(DataInput in) throws IOException {
+		int value = readVarInt(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public static void writeString(DataOutput out, String s) throws IOException {
+		if (s == null) {
+			writeVarInt(out, 0);
+			return;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length + 1);
+		out.write(bytes);
+	}
+
+	public static String readString(DataInput in) throws IOException {
+		int len = readVarInt(in) - 1;
+		if (len < 0) return null;
+		byte[] bytes = new byte[len];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
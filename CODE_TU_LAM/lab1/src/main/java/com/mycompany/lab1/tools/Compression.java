@@ -0,0 +1,201 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.io.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Kieu nen phan than file .dat (sau header), id duoc ghi vao header.
+ * DEFLATE nen theo tung khoi 64 KB doc lap: [do dai goc][do dai nen][bytes],
+ * khoi co do dai goc = 0 la ket thuc. Doc file chi can giai nen tung khoi 1.
+ * DEFLATE_FAST va DEFLATE ghi ra cung 1 dinh dang, chi khac muc nen.
+ */
+public enum Compression {
+	NONE(0, 0),
+	DEFLATE_FAST(1, Deflater.BEST_SPEED),
+	DEFLATE(1, Deflater.DEFAULT_COMPRESSION);
+
+	static final int BLOCK_SIZE = 64 * 1024;
+
+	private final int id;
+	private final int level;
+
+	Compression(int id, int level) {
+		this.id = id;
+		this.level = level;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public static Compression fromId(int id) throws IOException {
+		if (id == NONE.id) return NONE;
+		if (id == DEFLATE.id) return DEFLATE;
+		throw new IOException("Kieu nen khong ho tro: " + id);
+	}
+
+	// doc tu ten (vd: -Dfeast.compression=deflate), sai ten thi ko nen
+	public static Compression fromName(String name) {
+		for (Compression c : values()) {
+			if (c.name().equalsIgnoreCase(name)) return c;
+		}
+		return NONE;
+	}
+
+	// Boc stream ghi: goi finish() cua stream tra ve truoc khi fsync
+	public BlockOutputStream wrap(OutputStream out) {
+		return new BlockOutputStream(out, this == NONE ? null : new Deflater(level));
+	}
+
+	public InputStream wrap(InputStream in) {
+		return this == NONE ? in : new BlockInputStream(in);
+	}
+
+	public static class BlockOutputStream extends FilterOutputStream {
+		private Deflater deflater;          // null = ko nen, ghi thang
+		private byte[] buf;
+		private byte[] compressed;
+		private int count;
+		private DataOutputStream dos;
+
+		BlockOutputStream(OutputStream out, Deflater deflater) {
+			super(out);
+			this.deflater = deflater;
+			if (deflater != null) {
+				this.buf = new byte[BLOCK_SIZE];
+				this.compressed = new byte[BLOCK_SIZE + BLOCK_SIZE / 8 + 64];
+				this.dos = new DataOutputStream(out);
+			}
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (deflater == null) {
+				out.write(b);
+				return;
+			}
+			if (count == buf.length) writeBlock();
+			buf[count++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (deflater == null) {
+				out.write(b, off, len);
+				return;
+			}
+			while (len > 0) {
+				if (count == buf.length) writeBlock();
+				int n = Math.min(len, buf.length - count);
+				System.arraycopy(b, off, buf, count, n);
+				count += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		private void writeBlock() throws IOException {
+			if (count == 0) return;
+			deflater.reset();
+			deflater.setInput(buf, 0, count);
+			deflater.finish();
+			int len = 0;
+			while (!deflater.finished()) {
+				if (len == compressed.length) {
+					byte[] bigger = new byte[compressed.length * 2];
+					System.arraycopy(compressed, 0, bigger, 0, len);
+					compressed = bigger;
+				}
+				len += deflater.deflate(compressed, len, compressed.length - len);
+			}
+			dos.writeInt(count);
+			dos.writeInt(len);
+			dos.write(compressed, 0, len);
+			count = 0;
+		}
+
+		// ghi khoi cuoi + dau ket thuc, chua dong stream ben duoi
+		public void finish() throws IOException {
+			if (deflater != null) {
+				writeBlock();
+				dos.writeInt(0);
+				deflater.end();
+				deflater = null;
+			}
+			out.flush();
+		}
+	}
+
+	public static class BlockInputStream extends InputStream {
+		private DataInputStream in;
+		private Inflater inflater = new Inflater();
+		private byte[] buf = new byte[BLOCK_SIZE];
+		private byte[] compressed = new byte[BLOCK_SIZE];
+		private int pos;
+		private int limit;
+		private boolean eof;
+
+		BlockInputStream(InputStream in) {
+			this.in = new DataInputStream(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (pos == limit && !nextBlock()) return -1;
+			return buf[pos++] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) return 0;
+			if (pos == limit && !nextBlock()) return -1;
+			int n = Math.min(len, limit - pos);
+			System.arraycopy(buf, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+
+		private boolean nextBlock() throws IOException {
+			if (eof) return false;
+			int rawLen = in.readInt();
+			if (rawLen == 0) {
+				eof = true;
+				return false;
+			}
+			int compLen = in.readInt();
+			if (rawLen > buf.length) buf = new byte[rawLen];
+			if (compLen > compressed.length) compressed = new byte[compLen];
+			in.readFully(compressed, 0, compLen);
+
+			inflater.reset();
+			inflater.setInput(compressed, 0, compLen);
+			try {
+				int n = 0;
+				while (n < rawLen) {
+					int r = inflater.inflate(buf, n, rawLen - n);
+					if (r == 0 && (inflater.finished() || inflater.needsInput()))
+						throw new EOFException("Khoi nen bi hong");
+					n += r;
+				}
+			}
+			catch (DataFormatException e) {
+				throw new IOException("Khoi nen bi hong: " + e.getMessage());
+			}
+			pos = 0;
+			limit = rawLen;
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			inflater.end();
+			in.close();
+		}
+	}
+}
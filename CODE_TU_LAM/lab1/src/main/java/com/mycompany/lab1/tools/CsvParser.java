@@ -0,0 +1,278 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import com.mycompany.lab1.model.SetMenu;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Doc file CSV thuc don (Code,Name,Price,Ingredients) theo RFC 4180:
+ * - Truong co the nam trong "...", ben trong co dau phay, "" la 1 dau ngoac kep
+ * - Bo qua BOM UTF-8, dong tieu de (dong 1), dong trong, \r cuoi dong (\r giua truong duoc giu lai)
+ * - File cu ko boc ngoac (Lau ca ho diep, vit quay, ...): tu cot 4 tro di la Ingredients
+ * File duoc doc 1 lan vao bo dem tren heap (ko map: tren Windows file dang map
+ * ko ghi de duoc, hot reload se hong), doc thang tren byte. File lon thi cat thanh nhieu
+ * doan o dau dong va doc song song. Dong loi duoc bao kem so dong, ko bo qua im lang.
+ * Gioi han: truong trong ngoac kep ko duoc xuong dong.
+ */
+public class CsvParser {
+	private static final int PARALLEL_THRESHOLD = 1 << 20; // file > 1 MB moi doc song song
+	private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+			1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18}; // gia toi da 18 chu so
+
+	// Doc file thuc don; loi tung dong ("Dong N: ...") duoc them vao errors
+	public static List<SetMenu> parseMenus(String filePath, List<String> errors) throws IOException {
+		try (FileChannel ch = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			long size = ch.size();
+			if (size > Integer.MAX_VALUE)
+				throw new IOException("File CSV qua lon: " + size + " bytes");
+			ByteBuffer buf = ByteBuffer.allocate((int) size);
+			while (buf.hasRemaining() && ch.read(buf) >= 0) {
+				// doc den het file
+			}
+			return parseMenus(buf, buf.position(), errors);
+		}
+	}
+
+	private static List<SetMenu> parseMenus(ByteBuffer buf, int size, List<String> errors) {
+		int start = 0;
+		if (size >= 3 && buf.get(0) == (byte) 0xEF && buf.get(1) == (byte) 0xBB && buf.get(2) == (byte) 0xBF)
+			start = 3; // BOM
+
+		int parts = size < PARALLEL_THRESHOLD ? 1 : Runtime.getRuntime().availableProcessors();
+		int[] bounds = splitAtLines(buf, start, size, parts);
+
+		List<Chunk> chunks = IntStream.range(0, bounds.length - 1)
+				.parallel()
+				.mapToObj(i -> new Chunk(buf, bounds[i], bounds[i + 1], i == 0).parse())
+				.collect(Collectors.toList()); // giu dung thu tu cac doan
+
+		List<SetMenu> list = new ArrayList<>();
+		int lineOffset = 0;
+		for (Chunk c : chunks) {
+			list.addAll(c.menus);
+			for (int i = 0; i < c.errorLines.size(); i++) {
+				errors.add("Dong " + (lineOffset + c.errorLines.get(i)) + ": " + c.errorMessages.get(i));
+			}
+			lineOffset += c.lineCount;
+		}
+		return list;
+	}
+
+	// cat [start, end) thanh n doan, moi doan ket thuc ngay sau 1 dau xuong dong
+	private static int[] splitAtLines(ByteBuffer buf, int start, int end, int n) {
+		List<Integer> bounds = new ArrayList<>();
+		bounds.add(start);
+		int step = (end - start) / n;
+		int pos = start;
+		for (int i = 1; i < n; i++) {
+			pos = Math.max(pos, start + i * step);
+			while (pos < end && buf.get(pos) != '\n') pos++;
+			if (pos >= end) break;
+			pos++;
+			bounds.add(pos);
+		}
+		bounds.add(end);
+		return bounds.stream().distinct().mapToInt(Integer::intValue).toArray();
+	}
+
+	// 1 doan file, doc tuan tu tren 1 thread
+	private static class Chunk {
+		private ByteBuffer buf;
+		private int pos;
+		private int end;
+		private boolean first;     // doan dau tien: dong 1 co the la tieu de
+
+		// cac truong cua dong dang doc: byte da bo ngoac, vi tri bat dau/ket thuc
+		private byte[] data = new byte[256];
+		private int length;
+		private int[] fieldStart = new int[8];
+		private int[] fieldEnd = new int[8];
+		private int fieldCount;
+
+		private List<SetMenu> menus = new ArrayList<>();
+		private List<Integer> errorLines = new ArrayList<>();
+		private List<String> errorMessages = new ArrayList<>();
+		private int lineCount;
+
+		Chunk(ByteBuffer buf, int start, int end, boolean first) {
+			this.buf = buf;
+			this.pos = start;
+			this.end = end;
+			this.first = first;
+		}
+
+		Chunk parse() {
+			while (pos < end) {
+				lineCount++;
+				String error = readLine();
+				if (error != null) {
+					error(error);
+				}
+				else if (fieldCount == 1 && fieldEnd[0] == fieldStart[0]) {
+					// dong trong
+				}
+				else {
+					toMenu();
+				}
+			}
+			return this;
+		}
+
+		// doc 1 dong vao data/fieldStart/fieldEnd, tra ve thong bao loi (null = ok)
+		private String readLine() {
+			length = 0;
+			fieldCount = 0;
+			String error = null;
+			startField();
+			boolean quoted = false;
+			boolean afterQuote = false;  // vua dong ngoac, chi con cho ',' hoac het dong
+
+			while (pos < end) {
+				byte b = buf.get(pos++);
+				if (quoted) {
+					if (b == '"') {
+						if (pos < end && buf.get(pos) == '"') {
+							put(b); // "" -> "
+							pos++;
+						}
+						else {
+							quoted = false;
+							afterQuote = true;
+						}
+					}
+					else if (b == '\n') {
+						return "thieu dau \" dong truong";
+					}
+					else {
+						put(b);
+					}
+				}
+				else if (b == ',') {
+					endField();
+					startField();
+					afterQuote = false;
+				}
+				else if (b == '\n') {
+					break;
+				}
+				else if (b == '\r' && (pos == end || buf.get(pos) == '\n')) {
+					// CRLF
+				}
+				else if (b == '"' && length == fieldStart[fieldCount] && !afterQuote) {
+					quoted = true;
+				}
+				else if (afterQuote) {
+					if (b != ' ' && error == null) error = "ky tu thua sau dau \" dong truong";
+				}
+				else {
+					put(b);
+				}
+			}
+			if (quoted) return "thieu dau \" dong truong";
+			endField();
+			return error;
+		}
+
+		private void toMenu() {
+			if (fieldCount < 4) {
+				error("can it nhat 4 cot, chi co " + fieldCount);
+				return;
+			}
+
+			double price = parsePrice(2);
+			if (Double.isNaN(price)) {
+				if (first && lineCount == 1) return; // dong tieu de: Code,Name,Price,Ingredients
+				error("gia khong hop le '" + text(2).trim() + "'");
+				return;
+			}
+
+			String id = text(0).trim();
+			String name = text(1).trim();
+			if (id.isEmpty()) {
+				error("thieu ma thuc don");
+				return;
+			}
+
+			// file ko boc ngoac: cac cot sau cot 4 la phan con lai cua Ingredients
+			StringBuilder ingredients = new StringBuilder(text(3));
+			for (int i = 4; i < fieldCount; i++) {
+				ingredients.append(',').append(text(i));
+			}
+			menus.add(new SetMenu(id, name, price, ingredients.toString().trim()));
+		}
+
+		// doc so thang tu byte (vd: 3750000, 3750000.5), NaN neu sai
+		private double parsePrice(int f) {
+			int i = fieldStart[f];
+			int e = fieldEnd[f];
+			while (i < e && data[i] == ' ') i++;
+			while (e > i && data[e - 1] == ' ') e--;
+			if (i == e) return Double.NaN;
+
+			long value = 0;
+			int digits = 0;
+			int decimals = -1;  // -1 = chua gap dau '.'
+			for (; i < e; i++) {
+				byte b = data[i];
+				if (b >= '0' && b <= '9') {
+					if (++digits > 18) return Double.NaN;
+					value = value * 10 + (b - '0');
+					if (decimals >= 0) decimals++;
+				}
+				else if (b == '.' && decimals < 0) {
+					decimals = 0;
+				}
+				else {
+					return Double.NaN;
+				}
+			}
+			if (digits == 0) return Double.NaN;
+
+			// 1 phep chia: 10^n la so double chinh xac (n <= 18), ket qua lam tron 1 lan
+			return decimals <= 0 ? value : value / POW10[decimals];
+		}
+
+		private String text(int f) {
+			return new String(data, fieldStart[f], fieldEnd[f] - fieldStart[f], StandardCharsets.UTF_8);
+		}
+
+		private void put(byte b) {
+			if (length == data.length) {
+				byte[] bigger = new byte[data.length * 2];
+				System.arraycopy(data, 0, bigger, 0, length);
+				data = bigger;
+			}
+			data[length++] = b;
+		}
+
+		private void startField() {
+			if (fieldCount == fieldStart.length) {
+				fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+				fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+			}
+			fieldStart[fieldCount] = length;
+		}
+
+		private void endField() {
+			fieldEnd[fieldCount++] = length;
+		}
+
+		private void error(String message) {
+			errorLines.add(lineCount);
+			errorMessages.add(message);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * Doi ngay qua lai giua epoch day (int, so ngay tu 1970-01-01) va Date/chuoi.
+ * Ben trong chi dung epoch day; Date/chuoi chi o ria (nhap, in, file).
+ * DateTimeFormatter dung chung duoc giua cac thread (khac SimpleDateFormat).
+ */
+public final class Dates {
+	public static final int NO_DATE = Integer.MIN_VALUE; // chua co ngay
+	public static final ZoneId ZONE = ZoneId.systemDefault();
+	public static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	public static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE;       // 2026-12-01
+
+	private Dates() {
+	}
+
+	public static int toEpochDay(Date date) {
+		return date == null ? NO_DATE : toEpochDay(date.getTime());
+	}
+
+	public static int toEpochDay(long millis) {
+		return (int) Instant.ofEpochMilli(millis).atZone(ZONE).toLocalDate().toEpochDay();
+	}
+
+	public static int toEpochDay(LocalDate date) {
+		return date == null ? NO_DATE : (int) date.toEpochDay();
+	}
+
+	// 0h ngay do theo mui gio may
+	public static long toMillis(int epochDay) {
+		return LocalDate.ofEpochDay(epochDay).atStartOfDay(ZONE).toInstant().toEpochMilli();
+	}
+
+	public static Date toDate(int epochDay) {
+		return epochDay == NO_DATE ? null : new Date(toMillis(epochDay));
+	}
+
+	public static LocalDate toLocalDate(int epochDay) {
+		return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+	}
+
+	public static int today() {
+		return (int) LocalDate.now(ZONE).toEpochDay();
+	}
+
+	// dd/MM/yyyy, "" neu chua co ngay
+	public static String format(int epochDay) {
+		return epochDay == NO_DATE ? "" : DISPLAY.format(LocalDate.ofEpochDay(epochDay));
+	}
+}
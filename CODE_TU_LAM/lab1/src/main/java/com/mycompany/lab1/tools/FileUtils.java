@@ -7,75 +7,165 @@ package com.mycompany.lab1.tools;
 
 import com.mycompany.lab1.model.SetMenu;
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 public class FileUtils {
+	// Header file .dat: [MAGIC][version][kieu nen][so ban ghi] + than file: [bang chuoi][cac ban ghi]
+	// version 1 chua co byte kieu nen (ko nen)
+	// version 3: Order ghi ngay = epoch day (varint), tien = long VND; SetMenu gia = long
+	public static final int MAGIC = 0x46454153; // "FEAS"
+	public static final short SCHEMA_VERSION = 3;
+	static final int BUFFER_SIZE = 64 * 1024;
+
+	// kieu nen mac dinh khi ghi, chon bang -Dfeast.compression=none|deflate_fast|deflate
+	private static volatile Compression compression =
+			Compression.fromName(System.getProperty("feast.compression", "none"));
+
+	public static Compression getCompression() {
+		return compression;
+	}
+
+	public static void setCompression(Compression c) {
+		compression = c;
+	}
+
 	//saveToFile : ham luu danh sach bat ky thanh file nhi phan 
-	public static <T> void saveToFile (List<T> list, String filePath) {
-		try (FileOutputStream fos =  new FileOutputStream(filePath);
-				ObjectOutputStream oos = new ObjectOutputStream(fos)){
-				for (T item : list){
-					oos.writeObject(item);
-				}
-				System.out.println("Luu du lieu thanh cong!");
+	public static <T> void saveToFile (Iterable<T> list, String filePath, Codec<T> codec) {
+		if (writeToFile(list, filePath, codec))
+			System.out.println("Luu du lieu thanh cong!");
+	}
+
+	public static <T> boolean writeToFile (Iterable<T> list, String filePath, Codec<T> codec) {
+		return writeToFile(list, filePath, codec, compression);
+	}
+
+	//writeToFile: giong saveToFile nhung ko in thong bao, tra ve true neu ghi thanh cong
+	// (dung cho Journal khi compact o thread nen)
+	// list duoc duyet 2 lan, co the la Iterable doc tu chinh file dang ghi.
+	// Ghi ra file .tmp, fsync, roi doi ten de thay file cu: tat may giua chung
+	// thi file cu van con nguyen, ko bi cat ngang
+	public static <T> boolean writeToFile (Iterable<T> list, String filePath, Codec<T> codec, Compression compression) {
+		File tmp = new File(filePath + ".tmp");
+		try {
+			// lan 1: dem so ban ghi, gom cac id lap lai vao bang chuoi
+			StringTable table = new StringTable();
+			int count = 0;
+			for (T item : list){
+				codec.collect(item, table);
+				count++;
+			}
+
+			try (FileOutputStream fos = new FileOutputStream(tmp);
+					DataOutputStream head = new DataOutputStream(new BufferedOutputStream(fos, BUFFER_SIZE))){
+					head.writeInt(MAGIC);
+					head.writeShort(SCHEMA_VERSION);
+					head.writeByte(compression.getId());
+					head.writeInt(count);
+
+					Compression.BlockOutputStream body = compression.wrap(head);
+					DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(body, BUFFER_SIZE));
+					table.writeTo(dos);
+					// lan 2: ghi ban ghi
+					for (T item : list){
+						codec.write(dos, item, table);
+					}
+					dos.flush();
+					body.finish();
+					fos.getFD().sync(); // du lieu da xuong dia truoc khi doi ten
+			}
+			replaceFile(tmp, new File(filePath));
+			return true;
 		}
-		catch(IOException e){
+		catch(IOException | UncheckedIOException e){
 			System.err.println("Loi khi luu file: " + e.getMessage());
+			tmp.delete();
+			return false;
 		}
 	}
 	
-	//readFromFile: ham doc/lay ra danh sach tu file nhi phan
-	public static <T> List<T> readFromFile (String filePath) {
-		List<T> list = new ArrayList<>();
-		File file = new File(filePath);
-
-		// Neu file chua ton tai, tra ve list rong (lan dau chay)
-		if (!file.exists()) {
-			return list;
+	// doi ten tmp -> target (atomic neu he dieu hanh ho tro), roi fsync thu muc
+	private static void replaceFile(File tmp, File target) throws IOException {
+		try {
+			Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
 		}
 
-		try (FileInputStream fis = new FileInputStream(file);
-			 ObjectInputStream ois = new ObjectInputStream(fis)){
+		File dir = target.getAbsoluteFile().getParentFile();
+		try (FileChannel ch = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+			ch.force(true);
+		}
+		catch (IOException e) {
+			// Windows ko mo duoc thu muc, bo qua
+		}
+	}
+	
+	//readFromFile: ham doc/lay ra danh sach tu file nhi phan
+	// file .dat cu (Java serialization) van doc duoc, lan luu sau se ghi theo dinh dang moi
+	public static <T> List<T> readFromFile (String filePath, Codec<T> codec) {
+		List<T> list = new ArrayList<>();
 
-			while (fis.available()>0){;
-				T obj = (T) ois.readObject();
-				list.add(obj);
+		try (RecordReader<T> reader = new RecordReader<>(new File(filePath), codec)){
+			if (reader.isLegacy())
+				System.out.println("Doc file dinh dang cu: " + filePath);
+			while (reader.hasNext()){
+				list.add(reader.next());
 			}
-
-
 		}
-		catch(IOException | ClassNotFoundException e){
+		catch(IOException | UncheckedIOException e){
 			System.err.println("Error reading file: " + e.getMessage());
 		}
 
 		return list;
 
 	}
+
+	//openReader: doc lan luot tung ban ghi, ko nap ca file (nho dong lai neu ko doc het)
+	public static <T> RecordReader<T> openReader (String filePath, Codec<T> codec) throws IOException {
+		return new RecordReader<>(new File(filePath), codec);
+	}
+
+	//stream: nhu openReader nhung tra ve Stream, dung trong try-with-resources
+	public static <T> Stream<T> stream (String filePath, Codec<T> codec) {
+		try {
+			RecordReader<T> reader = openReader(filePath, codec);
+			return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED), false)
+					.onClose(reader::close);
+		}
+		catch(IOException e){
+			throw new UncheckedIOException(e);
+		}
+	}
 	
 	//	Hàm doc file CSV (readMenus)
+	// dong sai dinh dang duoc in ra kem so dong (xem CsvParser)
 	public static List<SetMenu> readMenus(String filePath) {
 		List<SetMenu> list = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
 
-		try (BufferedReader br = new BufferedReader(new FileReader(filePath))){
-			String line;
-			while ((line = br.readLine()) != null){
-				String[] parts = line.split(",");
-				if (parts.length >= 4){
-					String id = parts[0].trim();
-					String name = parts[1].trim();
-					double price = Double.parseDouble(parts[2].trim());
-					String ingredients = parts[3].trim();
-
-					list.add(new SetMenu(id, name, price, ingredients));
-				}
-			}
+		try {
+			list = CsvParser.parseMenus(filePath, errors);
 		}
 		catch (IOException e){
 			System.out.println("Loi doc file CSV: " + e.getMessage());
 		}
 
+		for (String error : errors){
+			System.out.println("Loi doc file CSV: " + error);
+		}
+
 		return list;
 	}
 	
@@ -0,0 +1,80 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Theo doi 1 file bang WatchService, file doi thi goi onChange (tren thread nen).
+ * Debounce: doi den khi file yen trong debounceMs moi goi, vi trinh soan thao
+ * thuong ghi file nhieu lan lien tiep (hoac ghi file tam roi doi ten).
+ */
+public class FileWatcher implements Runnable {
+	private Path file;
+	private long debounceMs;
+	private Runnable onChange;
+	private WatchService watcher;
+	private Thread thread;
+
+	public FileWatcher(String filePath, long debounceMs, Runnable onChange) {
+		this.file = Paths.get(filePath).toAbsolutePath();
+		this.debounceMs = debounceMs;
+		this.onChange = onChange;
+	}
+
+	public void start() throws IOException {
+		watcher = FileSystems.getDefault().newWatchService();
+		file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		thread = new Thread(this, "watch-" + file.getFileName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public void stop() {
+		try {
+			if (watcher != null) watcher.close(); // take() se nem ClosedWatchServiceException
+		}
+		catch (IOException e) {
+			// bo qua
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (true) {
+				if (!changed(watcher.take())) continue;
+
+				// gom cac lan ghi lien tiep: cho den khi debounceMs ko co su kien moi
+				WatchKey key;
+				while ((key = watcher.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+					changed(key);
+				}
+				try {
+					onChange.run();
+				}
+				catch (RuntimeException e) {
+					System.err.println("Loi khi nap lai " + file.getFileName() + ": " + e.getMessage());
+				}
+			}
+		}
+		catch (InterruptedException | ClosedWatchServiceException e) {
+			// dung theo doi
+		}
+	}
+
+	// true neu trong cac su kien co file dang theo doi
+	private boolean changed(WatchKey key) {
+		boolean found = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			Object name = event.context();
+			if (name instanceof Path && file.getFileName().equals(name)) found = true;
+		}
+		key.reset();
+		return found;
+	}
+}
@@ -16,6 +16,11 @@ public class Inputter {
 	
 	private static Scanner scanner = new Scanner(System.in);
 	
+	// 1 dong tho (Main dung chung scanner nay, ko mo them Scanner tren System.in); het input thi null
+	public static String nextLine() {
+		return scanner.hasNextLine() ? scanner.nextLine() : null;
+	}
+	
 	public static String getString(String mess) {
 		while (true) {
 			System.out.print(mess);
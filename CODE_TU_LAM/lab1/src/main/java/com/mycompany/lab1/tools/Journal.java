@@ -0,0 +1,258 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Nhat ky thay doi (write-ahead journal) cho 1 file snapshot.
+ * Moi lan addNew/update chi ghi them 1 ban ghi vao cuoi file journal,
+ * khong ghi lai ca file .dat. Khi journal qua nguong thi gom (compact)
+ * vao snapshot moi o thread nen (SnapshotWriter).
+ *
+ * File: data/xxx.journal (dang ghi), data/xxx.journal.1, .2 ... (da dong, cho compact)
+ * Moi file: [MAGIC][version] + cac ban ghi [do dai][op][doi tuong theo codec].
+ * File ban cu ko co header (version 2), van doc duoc.
+ * @param <T> - Loai du lieu (Customer, Order)
+ */
+public class Journal<T> {
+	public static final char ADD = 'A';
+	public static final char UPDATE = 'U';
+	public static final char CANCEL = 'C'; // huy: xoa doi tuong khi replay
+	private static final int NO_HEADER_VERSION = 2; // journal ghi truoc khi co header
+
+	private String pathFile;      // file journal dang ghi
+	private Codec<T> codec;
+	private SnapshotWriter<T> writer; // ghi file .dat tuong ung
+	private StringTable noTable = new StringTable(); // journal ko co bang chuoi, id ghi truc tiep
+	private int threshold;        // so ban ghi toi da truoc khi compact
+	private int size;             // so ban ghi dang co trong journal
+	private int segmentSeq;       // so thu tu segment lon nhat da dong
+	private DataOutputStream out; // giu file journal mo giua cac lan ghi
+
+	public Journal(String snapshotPath, Codec<T> codec, int threshold) {
+		this.codec = codec;
+		this.writer = new SnapshotWriter<>(snapshotPath, codec);
+		this.pathFile = snapshotPath.replaceAll("\\.dat$", "") + ".journal";
+		this.threshold = threshold;
+		this.segmentSeq = maxSegmentSeq();
+		this.size = 0;
+	}
+
+	// 1 ban ghi trong journal: loai thao tac + doi tuong
+	public static class Entry<T> {
+		private char op;
+		private T data;
+
+		public Entry(char op, T data) {
+			this.op = op;
+			this.data = data;
+		}
+
+		public char getOp() {
+			return op;
+		}
+
+		public T getData() {
+			return data;
+		}
+	}
+
+	// ghi them 1 ban ghi: [do dai][bytes], flush ngay xuong file (mo 1 lan o che do append)
+	public synchronized void append(char op, T item) {
+		try {
+			if (out == null) openOut();
+			byte[] bytes = toBytes(new Entry<>(op, item));
+			out.writeInt(bytes.length);
+			out.write(bytes);
+			out.flush();
+			size++;
+		}
+		catch (IOException e) {
+			System.err.println("Loi khi ghi journal: " + e.getMessage());
+			closeOut();
+		}
+	}
+
+	// ghi nhieu ban ghi cung loai, flush 1 lan (nhap file lon)
+	public synchronized void appendAll(char op, List<T> items) {
+		try {
+			if (out == null) openOut();
+			for (T item : items) {
+				byte[] bytes = toBytes(new Entry<>(op, item));
+				out.writeInt(bytes.length);
+				out.write(bytes);
+				size++;
+			}
+			out.flush();
+		}
+		catch (IOException e) {
+			System.err.println("Loi khi ghi journal: " + e.getMessage());
+			closeOut();
+		}
+	}
+
+	// mo file journal de ghi them, file moi thi ghi header truoc.
+	// File dang ghi do ban cu de lai (version khac) thi dong thanh segment, ko ghi lan 2 dinh dang vao 1 file
+	private void openOut() throws IOException {
+		File file = new File(pathFile);
+		if (file.length() > 0 && versionOf(file) != FileUtils.SCHEMA_VERSION) {
+			int count = size;
+			rotate();
+			size = count; // van chua compact, giu so ban ghi
+		}
+		boolean fresh = file.length() == 0;
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+		if (fresh) {
+			out.writeInt(FileUtils.MAGIC);
+			out.writeShort(FileUtils.SCHEMA_VERSION);
+		}
+	}
+
+	private static int versionOf(File file) {
+		try (DataInputStream dis = new DataInputStream(new FileInputStream(file))) {
+			return dis.readInt() == FileUtils.MAGIC ? dis.readShort() : NO_HEADER_VERSION;
+		}
+		catch (IOException e) {
+			return -1; // header bi cat ngang
+		}
+	}
+
+	private void closeOut() {
+		try {
+			if (out != null) out.close();
+		}
+		catch (IOException e) {
+			// bo qua
+		}
+		out = null;
+	}
+
+	// doc lai toan bo journal: cac segment cu truoc, file dang ghi sau cung
+	public synchronized List<Entry<T>> readAll() {
+		List<Entry<T>> list = new ArrayList<>();
+		for (int seq = 1; seq <= segmentSeq; seq++) {
+			readFile(new File(pathFile + "." + seq), list);
+		}
+		size = readFile(new File(pathFile), list);
+		return list;
+	}
+
+	// compact khi journal qua nguong va da lon bang 1/2 so ban ghi hien co,
+	// de du lieu lon ko phai ghi lai ca snapshot sau moi 1000 thay doi
+	public boolean needCompact(int liveCount) {
+		return size >= threshold && size >= liveCount / 2;
+	}
+
+	// Compact o thread nen: copy (da chup tren thread goi) duoc ghi thanh snapshot moi,
+	// ghi xong moi xoa cac segment da gom vao. Future = true neu ghi thanh cong.
+	public CompletableFuture<Boolean> compactAsync(Iterable<T> copy) {
+		int seq = rotate();
+		return writer.write(copy, () -> deleteSegments(seq));
+	}
+
+	// Luu va cho ghi xong
+	public boolean compact(Iterable<T> copy) {
+		return compactAsync(copy).join();
+	}
+
+	// dong file journal hien tai thanh segment .N, ban ghi moi se vao file moi
+	private synchronized int rotate() {
+		closeOut();
+		segmentSeq++;
+		File current = new File(pathFile);
+		if (current.exists()) {
+			current.renameTo(new File(pathFile + "." + segmentSeq));
+		}
+		size = 0;
+		return segmentSeq;
+	}
+
+	// goi sau khi snapshot da ghi xong: segment <= seq da nam trong snapshot
+	private void deleteSegments(int seq) {
+		for (int i = 1; i <= seq; i++) {
+			new File(pathFile + "." + i).delete();
+		}
+	}
+
+	private int readFile(File file, List<Entry<T>> list) {
+		int count = 0;
+		if (!file.exists()) return count;
+
+		try (DataInputStream dis = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			int version = NO_HEADER_VERSION;
+			boolean first = true;
+			while (true) {
+				int len;
+				try {
+					len = dis.readInt();
+				}
+				catch (EOFException e) {
+					break; // het file
+				}
+				if (first && len == FileUtils.MAGIC) {
+					version = dis.readShort();
+					if (version > FileUtils.SCHEMA_VERSION)
+						throw new IOException("Journal duoc tao boi phien ban moi hon (version " + version + ")");
+					first = false;
+					continue;
+				}
+				first = false;
+				byte[] bytes = new byte[len];
+				dis.readFully(bytes); // ban ghi ghi do dang (crash) -> EOFException
+				list.add(fromBytes(bytes, version));
+				count++;
+			}
+		}
+		catch (EOFException e) {
+			System.err.println("Journal bi cat ngang, bo qua ban ghi cuoi: " + file.getName());
+		}
+		catch (IOException e) {
+			System.err.println("Loi khi doc journal: " + e.getMessage());
+		}
+		return count;
+	}
+
+	// tim segment .N lon nhat con sot lai (vd: lan truoc tat may khi dang compact)
+	private int maxSegmentSeq() {
+		File journal = new File(pathFile);
+		File dir = journal.getAbsoluteFile().getParentFile();
+		String prefix = journal.getName() + ".";
+		int max = 0;
+		String[] names = dir == null ? null : dir.list();
+		if (names == null) return max;
+
+		for (String name : names) {
+			if (name.startsWith(prefix)) {
+				try {
+					max = Math.max(max, Integer.parseInt(name.substring(prefix.length())));
+				}
+				catch (NumberFormatException e) {
+					// khong phai segment, bo qua
+				}
+			}
+		}
+		return max;
+	}
+
+	// ban ghi: [op][doi tuong theo codec]
+	private byte[] toBytes(Entry<T> entry) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		DataOutputStream dos = new DataOutputStream(bos);
+		dos.writeByte(entry.getOp());
+		codec.write(dos, entry.getData(), noTable);
+		return bos.toByteArray();
+	}
+
+	private Entry<T> fromBytes(byte[] bytes, int version) throws IOException {
+		DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes));
+		char op = (char) dis.readByte();
+		return new Entry<>(op, codec.read(dis, noTable, version));
+	}
+}
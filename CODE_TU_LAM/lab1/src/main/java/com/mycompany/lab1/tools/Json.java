@@ -0,0 +1,144 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JSON toi thieu cho HTTP API (ko them thu vien):
+ * - ghi: them chuoi co escape vao StringBuilder
+ * - doc: 1 object phang {"a": "x", "b": 5, "c": true, "d": null}, gia tri tra ve dang chuoi
+ */
+public final class Json {
+	private Json() {
+	}
+
+	// ghi "s" (co escape), null -> null
+	public static StringBuilder quote(StringBuilder sb, String s) {
+		if (s == null) return sb.append("null");
+		sb.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '"': sb.append("\\\""); break;
+				case '\\': sb.append("\\\\"); break;
+				case '\n': sb.append("\\n"); break;
+				case '\r': sb.append("\\r"); break;
+				case '\t': sb.append("\\t"); break;
+				default:
+					if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+					else sb.append(c);
+			}
+		}
+		return sb.append('"');
+	}
+
+	// {"error": "..."}
+	public static String error(String message) {
+		return quote(new StringBuilder("{\"error\":"), message).append('}').toString();
+	}
+
+	// Doc object phang; sai cu phap thi IllegalArgumentException (kem vi tri)
+	public static Map<String, String> parseObject(String text) {
+		Parser p = new Parser(text);
+		Map<String, String> result = new LinkedHashMap<>();
+		p.skip();
+		p.expect('{');
+		p.skip();
+		if (p.peek() == '}') {
+			p.pos++;
+			return result;
+		}
+		while (true) {
+			p.skip();
+			String key = p.string();
+			p.skip();
+			p.expect(':');
+			p.skip();
+			result.put(key, p.value());
+			p.skip();
+			if (p.peek() == ',') {
+				p.pos++;
+				continue;
+			}
+			p.expect('}');
+			return result;
+		}
+	}
+
+	private static class Parser {
+		private final String s;
+		private int pos;
+
+		Parser(String s) {
+			this.s = s == null ? "" : s;
+		}
+
+		char peek() {
+			if (pos >= s.length()) throw error("het du lieu");
+			return s.charAt(pos);
+		}
+
+		void skip() {
+			while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+		}
+
+		void expect(char c) {
+			if (peek() != c) throw error("can '" + c + "'");
+			pos++;
+		}
+
+		String value() {
+			char c = peek();
+			if (c == '"') return string();
+			int start = pos;
+			while (pos < s.length() && ",} \t\r\n".indexOf(s.charAt(pos)) < 0) pos++;
+			String raw = s.substring(start, pos);
+			if (raw.isEmpty()) throw error("thieu gia tri");
+			if (raw.equals("null")) return null;
+			if (c == '{' || c == '[') throw error("ko ho tro object/mang long nhau");
+			return raw; // so, true/false
+		}
+
+		String string() {
+			expect('"');
+			StringBuilder sb = new StringBuilder();
+			while (true) {
+				char c = peek();
+				pos++;
+				if (c == '"') return sb.toString();
+				if (c != '\\') {
+					sb.append(c);
+					continue;
+				}
+				char e = peek();
+				pos++;
+				switch (e) {
+					case 'n': sb.append('\n'); break;
+					case 'r': sb.append('\r'); break;
+					case 't': sb.append('\t'); break;
+					case 'b': sb.append('\b'); break;
+					case 'f': sb.append('\f'); break;
+					case 'u':
+						if (pos + 4 > s.length()) throw error("\\u thieu ky tu");
+						try {
+							sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+						}
+						catch (NumberFormatException ex) {
+							throw error("\\u sai");
+						}
+						pos += 4;
+						break;
+					default: sb.append(e); // \" \\ \/
+				}
+			}
+		}
+
+		IllegalArgumentException error(String message) {
+			return new IllegalArgumentException("JSON loi o vi tri " + pos + ": " + message);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sinh ma don ko trung, tang dan theo thoi gian tao, ko khoa (lock-free).
+ * Ma = 1 so 63 bit: [41 bit millis tu 2024-01-01][10 bit node][12 bit so thu tu],
+ * in ra 13 ky tu base36 co dinh do dai (vd: 0CZ5K2M1Q0001) nen sap xep chuoi = sap xep thoi gian.
+ * Trang thai (millis << 12 | so thu tu) nam trong 1 AtomicLong, cap nhat bang CAS:
+ * cung 1 ms thi tang so thu tu, het 4096 so thi muon sang ms sau (van tang dan, ko trung),
+ * dong ho lui lai cung ko sao.
+ * Node: -Dfeast.node=0..1023, moi may/tien trinh 1 so khac nhau thi ma ko trung giua cac may.
+ */
+public final class OrderCodeGenerator {
+	public static final int CODE_LENGTH = 13;
+	private static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+	private static final int NODE_BITS = 10;
+	private static final int SEQ_BITS = 12;
+	private static final long SEQ_MASK = (1L << SEQ_BITS) - 1;
+	private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+	private static final OrderCodeGenerator DEFAULT = new OrderCodeGenerator(Integer.getInteger("feast.node", 0));
+
+	private final long node;
+	private final AtomicLong state = new AtomicLong(); // millis << SEQ_BITS | so thu tu
+
+	public OrderCodeGenerator(int node) {
+		if (node < 0 || node >= (1 << NODE_BITS))
+			throw new IllegalArgumentException("node phai tu 0 den " + ((1 << NODE_BITS) - 1));
+		this.node = node;
+	}
+
+	public static OrderCodeGenerator getDefault() {
+		return DEFAULT;
+	}
+
+	public long nextId() {
+		while (true) {
+			long last = state.get();
+			long now = System.currentTimeMillis() - EPOCH;
+			// ms moi thi so thu tu ve 0, con ko thi +1 (tran so thu tu thi tu cong vao ms)
+			long next = now > (last >>> SEQ_BITS) ? now << SEQ_BITS : last + 1;
+			if (state.compareAndSet(last, next)) {
+				return (next >>> SEQ_BITS) << (NODE_BITS + SEQ_BITS) | node << SEQ_BITS | (next & SEQ_MASK);
+			}
+		}
+	}
+
+	public String nextCode() {
+		return toCode(nextId());
+	}
+
+	// 13 ky tu base36, them so 0 o dau
+	public static String toCode(long id) {
+		char[] buf = new char[CODE_LENGTH];
+		for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+			buf[i] = DIGITS[(int) (id % 36)];
+			id /= 36;
+		}
+		return new String(buf);
+	}
+
+	// ma do generator nay tao ra -> so, -1 neu ko dung dang (vd: ma cu yyyyMMddHHmmss)
+	public static long parseCode(String code) {
+		if (code == null || code.length() != CODE_LENGTH) return -1;
+		long id = 0;
+		for (int i = 0; i < CODE_LENGTH; i++) {
+			int d = Character.digit(code.charAt(i), 36);
+			if (d < 0) return -1;
+			id = id * 36 + d;
+			if (id < 0) return -1; // tran long
+		}
+		return id;
+	}
+
+	// Bao cho generator biet ma da ton tai (vd: nap tu file): ma sinh ra sau luon lon hon,
+	// ke ca khi dong ho may bi chinh lui sau khi khoi dong lai
+	public void observe(String code) {
+		long id = parseCode(code);
+		if (id < 0) return;
+		long seen = (id >>> (NODE_BITS + SEQ_BITS)) << SEQ_BITS | (id & SEQ_MASK);
+		state.accumulateAndGet(seen, Math::max);
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.io.*;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Doc lan luot tung ban ghi trong file .dat, ko nap ca file vao RAM.
+ * Chi giu 1 buffer co dinh (FileUtils.BUFFER_SIZE), tu dong dong file khi doc het.
+ * Doc duoc ca file dinh dang cu (Java serialization).
+ * @param <T> - Loai du lieu (Customer, Order)
+ */
+public class RecordReader<T> implements Iterator<T>, Closeable {
+	private Codec<T> codec;
+	private DataInputStream dis;      // dinh dang moi
+	private ObjectInputStream ois;    // dinh dang cu
+	private StringTable table;
+	private int version;              // version dinh dang cua file
+	private int remaining;            // so ban ghi con lai (dinh dang moi)
+	private T next;                   // ban ghi doc truoc (dinh dang cu)
+	private boolean closed;
+
+	public RecordReader(File file, Codec<T> codec) throws IOException {
+		this.codec = codec;
+		if (!file.exists()) {
+			closed = true; // chua co file = danh sach rong
+			return;
+		}
+
+		dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file), FileUtils.BUFFER_SIZE));
+		try {
+			if (file.length() < 4 || dis.readInt() != FileUtils.MAGIC) {
+				dis.close();
+				dis = null;
+				ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file), FileUtils.BUFFER_SIZE));
+				readLegacy();
+				return;
+			}
+
+			version = dis.readShort();
+			if (version > FileUtils.SCHEMA_VERSION)
+				throw new IOException("File duoc tao boi phien ban moi hon (version " + version + ")");
+			Compression compression = version >= 2 ? Compression.fromId(dis.readByte()) : Compression.NONE;
+			remaining = dis.readInt();
+			if (compression != Compression.NONE) {
+				// giai nen tung khoi khi doc, ko giai nen ca file
+				dis = new DataInputStream(new BufferedInputStream(compression.wrap(dis), FileUtils.BUFFER_SIZE));
+			}
+			table = StringTable.readFrom(dis);
+			if (remaining == 0) close();
+		}
+		catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	// true neu file la dinh dang cu
+	public boolean isLegacy() {
+		return ois != null;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) return false;
+		return ois != null ? next != null : remaining > 0;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) throw new NoSuchElementException();
+		try {
+			if (ois != null) {
+				T result = next;
+				readLegacy();
+				return result;
+			}
+
+			T result = codec.read(dis, table, version);
+			if (--remaining == 0) close();
+			return result;
+		}
+		catch (IOException e) {
+			close();
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readLegacy() throws IOException {
+		try {
+			next = (T) ois.readObject();
+		}
+		catch (EOFException e) {
+			next = null;
+			close();
+		}
+		catch (ClassNotFoundException e) {
+			close();
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (closed) return;
+		closed = true;
+		try {
+			if (dis != null) dis.close();
+			if (ois != null) ois.close();
+		}
+		catch (IOException e) {
+			// dong file loi thi bo qua
+		}
+	}
+}
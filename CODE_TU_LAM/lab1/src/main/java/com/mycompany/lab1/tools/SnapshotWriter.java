@@ -0,0 +1,80 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ghi snapshot (.dat) o thread nen, thread console ko phai cho o cung.
+ * - Ghi file .tmp, fsync, roi doi ten de thay file cu (FileUtils.writeToFile)
+ * - Nhieu lan luu lien tiep khi lan truoc chua bat dau ghi -> gop thanh 1 lan ghi
+ *   (ban copy moi nhat), tat ca cung nhan 1 future
+ * Tat ca SnapshotWriter dung chung 1 thread nen, cac lan ghi chay lan luot.
+ * @param <T> - Loai du lieu (Customer, Order)
+ */
+public class SnapshotWriter<T> {
+	private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "snapshot-writer");
+		t.setDaemon(true); // tat may giua chung van an toan: file cu con nguyen, journal chua xoa
+		return t;
+	});
+
+	private String pathFile;
+	private Codec<T> codec;
+	private Job<T> pending; // lan ghi dang cho, chua bat dau
+
+	public SnapshotWriter(String pathFile, Codec<T> codec) {
+		this.pathFile = pathFile;
+		this.codec = codec;
+	}
+
+	// 1 lan ghi: du lieu + viec can lam sau khi ghi xong (vd: xoa journal da gom)
+	private static class Job<T> {
+		private Iterable<T> copy;
+		private Runnable onCommit;
+		private CompletableFuture<Boolean> future = new CompletableFuture<>();
+	}
+
+	// copy phai duoc chup tren thread goi; future = true neu ghi thanh cong
+	public synchronized CompletableFuture<Boolean> write(Iterable<T> copy, Runnable onCommit) {
+		if (pending != null) {
+			// chua ghi lan truoc -> thay bang ban moi hon, dung chung future
+			pending.copy = copy;
+			pending.onCommit = onCommit;
+			return pending.future;
+		}
+
+		Job<T> job = new Job<>();
+		job.copy = copy;
+		job.onCommit = onCommit;
+		pending = job;
+		EXECUTOR.execute(this::runPending);
+		return job.future;
+	}
+
+	private void runPending() {
+		Job<T> job;
+		synchronized (this) {
+			job = pending;
+			pending = null; // tu day cac lan luu moi se tao job moi
+		}
+
+		try {
+			boolean ok = FileUtils.writeToFile(job.copy, pathFile, codec);
+			if (ok && job.onCommit != null) job.onCommit.run();
+			job.future.complete(ok);
+		}
+		catch (RuntimeException e) {
+			job.future.completeExceptionally(e);
+		}
+	}
+
+	// Cho tat ca cac lan ghi da gui xong (goi truoc khi thoat chuong trinh)
+	public static void flushAll() {
+		CompletableFuture.runAsync(() -> { }, EXECUTOR).join();
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bang chuoi o dau file: moi id lap lai chi ghi 1 lan, ban ghi chi luu so thu tu.
+ * Chuoi khong co trong bang (vd: ghi journal voi bang rong) thi ghi truc tiep.
+ */
+public class StringTable {
+	private List<String> strings = new ArrayList<>();
+	private Map<String, Integer> index = new HashMap<>();
+
+	// them chuoi vao bang (neu chua co), tra ve so thu tu
+	public int add(String s) {
+		Integer i = index.get(s);
+		if (i != null) return i;
+		strings.add(s);
+		index.put(s, strings.size() - 1);
+		return strings.size() - 1;
+	}
+
+	// so thu tu cua chuoi, -1 neu chua co trong bang (ko them)
+	public int indexOf(String s) {
+		Integer i = index.get(s);
+		return i == null ? -1 : i;
+	}
+
+	public String get(int i) {
+		return strings.get(i);
+	}
+
+	public int size() {
+		return strings.size();
+	}
+
+	// ghi tham chieu: 0 = chuoi ghi truc tiep, n > 0 = phan tu thu n-1 trong bang
+	public void writeRef(DataOutput out, String s) throws IOException {
+		Integer i = s == null ? null : index.get(s);
+		if (i == null) {
+			Codecs.writeVarInt(out, 0);
+			Codecs.writeString(out, s);
+		}
+		else {
+			Codecs.writeVarInt(out, i + 1);
+		}
+	}
+
+	public String readRef(DataInput in) throws IOException {
+		int ref = Codecs.readVarInt(in);
+		if (ref == 0) return Codecs.readString(in);
+		return strings.get(ref - 1);
+	}
+
+	public void writeTo(DataOutput out) throws IOException {
+		Codecs.writeVarInt(out, strings.size());
+		for (String s : strings) {
+			Codecs.writeString(out, s);
+		}
+	}
+
+	public static StringTable readFrom(DataInput in) throws IOException {
+		StringTable table = new StringTable();
+		int n = Codecs.readVarInt(in);
+		for (int i = 0; i < n; i++) {
+			table.add(Codecs.readString(in));
+		}
+		return table;
+	}
+}
@@ -0,0 +1,325 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.model.SetMenu;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * In bang | cot | cot | cho danh sach lon (500k don):
+ * - ghi qua 1 BufferedWriter 64KB, ko println tung dong (stdout tu flush moi dong rat cham)
+ * - 1 StringBuilder dung lai cho moi dong, can le bang tay (ko String.format)
+ * - doc tu Stream, ko chep ca danh sach: ko sap xep thi chi dem + in cac dong cua trang can xem;
+ *   co sap xep thi giu page * pageSize dong dau trong 1 heap
+ * Ko dung chung giua cac thread (StringBuilder dung lai).
+ */
+public final class TableRenderer<T> {
+	private static final int BUFFER = 1 << 16;
+	private static final String SPACES = "                                "; // 32
+
+	private interface Cell<T> {
+		void append(StringBuilder sb, T row);
+	}
+
+	private static class Column<T> {
+		final String header;
+		final int width;
+		final boolean right;
+		final Cell<T> cell;
+
+		Column(String header, int width, boolean right, Cell<T> cell) {
+			this.header = header;
+			this.width = width;
+			this.right = right;
+			this.cell = cell;
+		}
+	}
+
+	// chuoi null xep cuoi, ko NPE khi sap xep
+	private static final Comparator<String> TEXT = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+
+	private final List<Column<T>> columns = new ArrayList<>();
+	private final Map<String, Comparator<? super T>> sortKeys = new LinkedHashMap<>();
+	private final StringBuilder line = new StringBuilder(128);
+	private char[] chars = new char[128];
+	private final Writer target; // null = System.out
+
+	public TableRenderer() {
+		this(null);
+	}
+
+	public TableRenderer(Writer target) {
+		this.target = target;
+	}
+
+	// ===== Khai bao bang =====
+
+	public TableRenderer<T> column(String header, int width, Function<? super T, ?> value) {
+		columns.add(new Column<>(header, width, false, (sb, row) -> sb.append(value.apply(row))));
+		return this;
+	}
+
+	// cot so: ko boxing; right = can phai (tien)
+	public TableRenderer<T> numberColumn(String header, int width, boolean right, ToLongFunction<? super T> value) {
+		columns.add(new Column<>(header, width, right, (sb, row) -> sb.append(value.applyAsLong(row))));
+		return this;
+	}
+
+	public TableRenderer<T> sortKey(String name, Comparator<? super T> comparator) {
+		sortKeys.put(name.toLowerCase(Locale.ROOT), comparator);
+		return this;
+	}
+
+	public Set<String> getSortKeys() {
+		return sortKeys.keySet();
+	}
+
+	public boolean hasSortKey(String name) {
+		return name != null && sortKeys.containsKey(name.toLowerCase(Locale.ROOT));
+	}
+
+	// ===== Bang co san =====
+
+	public static TableRenderer<Customer> forCustomers() {
+		return forCustomers(null);
+	}
+
+	public static TableRenderer<Customer> forCustomers(Writer target) {
+		return new TableRenderer<Customer>(target)
+				.column("ID", 10, Customer::getId)
+				.column("Name", 25, Customer::getName)
+				.column("Phone", 15, Customer::getPhone)
+				.column("Email", 30, Customer::getEmail)
+				.sortKey("id", Comparator.comparing(Customer::getId, TEXT))
+				.sortKey("name", Comparator.comparing(Customer::getName, TEXT));
+	}
+
+	public static TableRenderer<Order> forOrders() {
+		return forOrders(null);
+	}
+
+	public static TableRenderer<Order> forOrders(Writer target) {
+		return new TableRenderer<Order>(target)
+				.column("Code", 15, Order::getOrderCode)
+				.column("Customer", 10, Order::getCustomerId)
+				.column("Menu", 10, Order::getMenuId)
+				.numberColumn("Tables", 10, false, Order::getNumOfTables)
+				.column("Event date", 12, o -> Dates.format(o.getEpochDay()))
+				.numberColumn("Total", 12, true, Order::getTotalVnd)
+				.sortKey("code", Comparator.comparing(Order::getOrderCode, Comparator.nullsLast(Comparator.naturalOrder())))
+				.sortKey("customer", Comparator.comparing(Order::getCustomerId, TEXT))
+				.sortKey("menu", Comparator.comparing(Order::getMenuId, TEXT))
+				.sortKey("date", Comparator.comparingInt(Order::getEpochDay))
+				.sortKey("tables", Comparator.comparingInt(Order::getNumOfTables))
+				.sortKey("total", Comparator.comparingLong(Order::getTotalVnd));
+	}
+
+	public static TableRenderer<SetMenu> forMenus() {
+		return forMenus(null);
+	}
+
+	public static TableRenderer<SetMenu> forMenus(Writer target) {
+		return new TableRenderer<SetMenu>(target)
+				.column("ID", 10, SetMenu::getMenuId)
+				.column("Name", 30, SetMenu::getMenuName)
+				.numberColumn("Price (Vnd)", 15, true, m -> Math.round(m.getPrice()))
+				.sortKey("id", Comparator.comparing(SetMenu::getMenuId, TEXT))
+				.sortKey("name", Comparator.comparing(SetMenu::getMenuName, TEXT))
+				.sortKey("price", Comparator.comparingDouble(SetMenu::getPrice));
+	}
+
+	// ===== In =====
+
+	// in het, giu thu tu cua rows; tra ve so dong
+	public int render(Stream<? extends T> rows) {
+		return render(rows, null, 0, 1);
+	}
+
+	/**
+	 * In trang thu page (tu 1) voi pageSize dong/trang (<= 0: in het).
+	 * sortKey null/rong: giu thu tu cua rows. Tra ve tong so dong (de tinh so trang).
+	 */
+	public int render(Stream<? extends T> rows, String sortKey, int pageSize, int page) {
+		Comparator<? super T> order = null;
+		if (sortKey != null && !sortKey.isEmpty()) {
+			order = sortKeys.get(sortKey.toLowerCase(Locale.ROOT));
+			if (order == null) throw new IllegalArgumentException("Khong sap xep theo '" + sortKey + "' duoc, chon: " + sortKeys.keySet());
+		}
+		if (page < 1) page = 1;
+		long from = pageSize > 0 ? (long) (page - 1) * pageSize : 0;
+		long to = pageSize > 0 ? from + pageSize : Long.MAX_VALUE;
+
+		Writer out = target != null ? target : new BufferedWriter(new OutputStreamWriter(System.out), BUFFER);
+		try {
+			int total;
+			boolean wroteHeader = false;
+			if (order == null) {
+				// 1 luot: dem het, chi dinh dang cac dong trong trang
+				total = 0;
+				for (Iterator<? extends T> it = rows.iterator(); it.hasNext(); total++) {
+					T row = it.next();
+					if (total < from || total >= to) continue;
+					if (!wroteHeader) {
+						header(out);
+						wroteHeader = true;
+					}
+					row(out, row);
+				}
+			}
+			else if (pageSize <= 0) {
+				// in het co sap xep: phai giu tat ca (chi tham chieu, chua dinh dang)
+				List<T> all = new ArrayList<>();
+				rows.forEach(all::add);
+				all.sort(order);
+				total = all.size();
+				if (total > 0) header(out);
+				for (T row : all) row(out, row);
+			}
+			else {
+				Top<T> top = new Top<>(order, to > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) to);
+				total = 0;
+				for (Iterator<? extends T> it = rows.iterator(); it.hasNext(); total++) top.offer(it.next(), total);
+				List<T> sorted = top.sorted();
+				if (sorted.size() > from) header(out);
+				for (int i = (int) from; i < sorted.size(); i++) row(out, sorted.get(i));
+			}
+
+			if (total == 0) out.write("Danh sach trong!\n");
+			else if (pageSize > 0) {
+				int pages = (total + pageSize - 1) / pageSize;
+				if (from >= total) out.write("Trang " + page + " khong co du lieu (" + pages + " trang)\n");
+				else out.write(String.format("Trang %d/%d, dong %d-%d / %d%n", page, pages, from + 1, Math.min(to, total), total));
+			}
+			else out.write("Tong: " + total + " dong\n");
+			out.flush();
+			return total;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		finally {
+			rows.close();
+		}
+	}
+
+	private void header(Writer out) throws IOException {
+		line.setLength(0);
+		line.append('|');
+		for (Column<T> c : columns) {
+			line.append(' ');
+			int start = line.length();
+			line.append(c.header);
+			pad(start, c);
+			line.append(" |");
+		}
+		line.append('\n');
+		write(out);
+		line.setLength(0);
+		line.append('|');
+		for (Column<T> c : columns) {
+			for (int i = 0; i < c.width + 2; i++) line.append('-');
+			line.append('|');
+		}
+		line.append('\n');
+		write(out);
+	}
+
+	private void row(Writer out, T row) throws IOException {
+		line.setLength(0);
+		line.append('|');
+		for (Column<T> c : columns) {
+			line.append(' ');
+			int start = line.length();
+			c.cell.append(line, row);
+			pad(start, c);
+			line.append(" |");
+		}
+		line.append('\n');
+		write(out);
+	}
+
+	// Writer.append(StringBuilder) tao String moi, chep qua mang char dung lai
+	private void write(Writer out) throws IOException {
+		if (chars.length < line.length()) chars = new char[line.length() * 2];
+		line.getChars(0, line.length(), chars, 0);
+		out.write(chars, 0, line.length());
+	}
+
+	// can le noi dung vua them (tu start) cho du width, dai hon thi de nguyen nhu %-Ns
+	private void pad(int start, Column<T> c) {
+		int missing = c.width - (line.length() - start);
+		if (missing <= 0) return;
+		while (missing > 0) {
+			int n = Math.min(missing, SPACES.length());
+			if (c.right) line.insert(start, SPACES, 0, n);
+			else line.append(SPACES, 0, n);
+			missing -= n;
+		}
+	}
+
+	// giu k dong nho nhat theo comparator; bang nhau thi dong den truoc dung truoc
+	private static class Top<T> {
+		private static class Entry<T> {
+			final T row;
+			final int seq;
+
+			Entry(T row, int seq) {
+				this.row = row;
+				this.seq = seq;
+			}
+		}
+
+		private final Comparator<? super T> cmp;
+		private final Comparator<Entry<T>> order;
+		private final PriorityQueue<Entry<T>> heap; // dau heap = dong lon nhat dang giu
+		private final int k;
+
+		Top(Comparator<? super T> cmp, int k) {
+			Comparator<Entry<T>> byRow = (a, b) -> cmp.compare(a.row, b.row);
+			this.cmp = cmp;
+			this.order = byRow.thenComparingInt(e -> e.seq);
+			this.heap = new PriorityQueue<>(Math.min(k, 1 << 16) + 1, this.order.reversed());
+			this.k = k;
+		}
+
+		void offer(T row, int seq) {
+			if (heap.size() < k) {
+				heap.add(new Entry<>(row, seq));
+				return;
+			}
+			// chi tao Entry khi dong nay vao duoc top (den sau nen bang nhau la thua)
+			if (cmp.compare(row, heap.peek().row) < 0) {
+				heap.poll();
+				heap.add(new Entry<>(row, seq));
+			}
+		}
+
+		List<T> sorted() {
+			List<Entry<T>> entries = new ArrayList<>(heap);
+			entries.sort(order);
+			List<T> result = new ArrayList<>(entries.size());
+			for (Entry<T> e : entries) result.add(e.row);
+			return result;
+		}
+	}
+}
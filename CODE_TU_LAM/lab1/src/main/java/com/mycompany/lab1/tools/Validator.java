@@ -0,0 +1,150 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import com.mycompany.lab1.model.Customer;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Kiem tra du lieu nhap ko dung String.matches (moi lan goi la bien dich lai regex).
+ * - cac mau trong Acceptable: kiem tra tay tung ky tu, ko tao doi tuong
+ * - so dien thoai: 0 + 9 chu so va dau so phai thuoc 1 nha mang (CarrierTrie)
+ * - mau khac: Pattern bien dich 1 lan roi luu lai
+ * validate/validateAll tra ve ly do loi (null = hop le) de in ra hoac ghi file.
+ */
+public final class Validator {
+	private static final int PARALLEL_MIN = 4096; // it hon thi chay 1 thread cho nhanh
+
+	private static final ConcurrentHashMap<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+	private Validator() {
+	}
+
+	public static boolean matches(String data, String pattern) {
+		if (data == null) return false;
+		switch (pattern) {
+			case Acceptable.CUS_ID_VALID: return isCustomerId(data);
+			case Acceptable.NAME_VALID: return isName(data);
+			case Acceptable.PHONE_VALID: return isPhone(data);
+			case Acceptable.EMAIL_VALID: return isEmail(data);
+			case Acceptable.MENU_ID_VALID: return isMenuId(data);
+			case Acceptable.INTEGER_VALID: return isPositiveInt(data);
+			default: return PATTERNS.computeIfAbsent(pattern, Pattern::compile).matcher(data).matches();
+		}
+	}
+
+	// C/G/K (hoa/thuong) + 4 chu so
+	public static boolean isCustomerId(CharSequence s) {
+		if (s.length() != 5) return false;
+		switch (s.charAt(0)) {
+			case 'C': case 'c': case 'G': case 'g': case 'K': case 'k': break;
+			default: return false;
+		}
+		return digits(s, 1, 5);
+	}
+
+	// 2-25 ky tu (tinh theo code point nhu regex), ko xuong dong
+	public static boolean isName(CharSequence s) {
+		int count = 0;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') return false;
+			if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) i++;
+			if (++count > 25) return false;
+		}
+		return count >= 2;
+	}
+
+	// 0 + 9 chu so, dau so thuoc nha mang VN
+	public static boolean isPhone(CharSequence s) {
+		return s.length() == 10 && s.charAt(0) == '0' && digits(s, 1, 10)
+				&& CarrierTrie.getDefault().classify(s) != null;
+	}
+
+	// ten nha mang, null neu ko hop le
+	public static String carrierOf(CharSequence phone) {
+		return phone != null && isPhone(phone) ? CarrierTrie.getDefault().classify(phone) : null;
+	}
+
+	// giong EMAIL_VALID: [\w.-]+ @ [\w.-]+ . [a-zA-Z]{2,}
+	public static boolean isEmail(CharSequence s) {
+		int at = -1;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '@') {
+				if (at >= 0) return false;
+				at = i;
+			}
+			else if (!isWordOrDotDash(c)) return false;
+		}
+		if (at < 1) return false;
+		int lastDot = -1;
+		for (int i = s.length() - 1; i > at; i--) {
+			if (s.charAt(i) == '.') {
+				lastDot = i;
+				break;
+			}
+		}
+		// phan truoc dau cham cuoi con it nhat 1 ky tu, sau la >= 2 chu cai
+		if (lastDot < at + 2 || s.length() - lastDot - 1 < 2) return false;
+		for (int i = lastDot + 1; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) return false;
+		}
+		return true;
+	}
+
+	// PW + 3 chu so
+	public static boolean isMenuId(CharSequence s) {
+		return s.length() == 5 && s.charAt(0) == 'P' && s.charAt(1) == 'W' && digits(s, 2, 5);
+	}
+
+	// so nguyen duong, ko bat dau bang 0
+	public static boolean isPositiveInt(CharSequence s) {
+		return s.length() > 0 && s.charAt(0) >= '1' && s.charAt(0) <= '9' && digits(s, 1, s.length());
+	}
+
+	// ly do KH ko hop le, null = hop le
+	public static String validate(Customer c) {
+		if (c == null) return "thieu thong tin KH";
+		if (!matches(c.getId(), Acceptable.CUS_ID_VALID)) return invalid("ma KH", c.getId());
+		if (!matches(c.getName(), Acceptable.NAME_VALID)) return invalid("ten", c.getName());
+		if (!matches(c.getPhone(), Acceptable.PHONE_VALID)) {
+			return c.getPhone() != null && c.getPhone().length() == 10 && digits(c.getPhone(), 0, 10)
+					? "so dien thoai ko thuoc nha mang nao '" + c.getPhone() + "'"
+					: invalid("so dien thoai", c.getPhone());
+		}
+		if (!matches(c.getEmail(), Acceptable.EMAIL_VALID)) return invalid("email", c.getEmail());
+		return null;
+	}
+
+	// kiem tra ca danh sach, ly do loi theo dung vi tri; danh sach lon thi chia cho nhieu thread
+	public static String[] validateAll(List<Customer> list) {
+		String[] reasons = new String[list.size()];
+		IntStream range = IntStream.range(0, reasons.length);
+		if (reasons.length >= PARALLEL_MIN) range = range.parallel();
+		range.forEach(i -> reasons[i] = validate(list.get(i)));
+		return reasons;
+	}
+
+	public static String invalid(String field, String value) {
+		return field + " khong hop le '" + value + "'";
+	}
+
+	private static boolean digits(CharSequence s, int from, int to) {
+		for (int i = from; i < to; i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') return false;
+		}
+		return true;
+	}
+
+	private static boolean isWordOrDotDash(char c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '.' || c == '-';
+	}
+}
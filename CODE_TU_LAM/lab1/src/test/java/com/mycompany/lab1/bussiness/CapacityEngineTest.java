@@ -0,0 +1,125 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Order;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CapacityEngine: giu/tra/doi ban, nhieu thread cung dat 1 ngay ko bao gio vuot so ban.
+ */
+class CapacityEngineTest {
+	private static final int THREADS = 8;
+
+	@TempDir
+	Path dir;
+
+	// chay task tren THREADS thread bat dau cung luc, cho xong
+	private static void runAll(Runnable task) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					task.run();
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void reserveReleaseAndMove() {
+		CapacityEngine engine = new CapacityEngine(10);
+		assertTrue(engine.reserve(1, 6));
+		assertFalse(engine.reserve(1, 5));
+		assertEquals(4, engine.remaining(1));
+		assertTrue(engine.move(1, 6, 1, 10)); // cung ngay, tang so ban
+		assertFalse(engine.move(1, 10, 2, 11)); // ngay moi ko du: giu nguyen
+		assertEquals(0, engine.remaining(1));
+		assertTrue(engine.move(1, 10, 2, 3));
+		assertEquals(10, engine.remaining(1));
+		assertEquals(7, engine.remaining(2));
+		engine.release(2, 3);
+		assertEquals(10, engine.remaining(2));
+	}
+
+	@Test
+	void rangeIsValidated() {
+		CapacityEngine engine = new CapacityEngine(10);
+		LocalDate day = LocalDate.ofEpochDay(Fixtures.DAY);
+		assertEquals(3, engine.remaining(day, day.plusDays(2)).length);
+		assertEquals(0, engine.remaining(day, day.minusDays(1)).length);
+		assertThrows(IllegalArgumentException.class, () -> engine.remaining(null, day));
+		assertThrows(IllegalArgumentException.class, () -> engine.remaining(day, day.plusDays(CapacityEngine.MAX_RANGE_DAYS)));
+	}
+
+	@Test
+	void concurrentReservationsNeverOverbook() throws Exception {
+		CapacityEngine engine = new CapacityEngine(1000);
+		AtomicInteger granted = new AtomicInteger();
+		runAll(() -> {
+			for (int i = 0; i < 500; i++) {
+				if (engine.reserve(Fixtures.DAY, 1)) granted.incrementAndGet();
+			}
+		});
+		assertEquals(1000, granted.get());
+		assertEquals(0, engine.remaining(Fixtures.DAY));
+	}
+
+	@Test
+	void concurrentBookingsOnOneDayStayWithinCapacity() throws Exception {
+		// 40 KH x 3 thuc don, moi don 7 ban vao cung 1 ngay: can 840 ban, chi co 100
+		Customers customers = Fixtures.customers(dir, 40);
+		FeastMenus menus = Fixtures.menus(dir);
+		ConcurrentOrders orders = new ConcurrentOrders(Fixtures.orders(dir));
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger bookedTables = new AtomicInteger();
+		runAll(() -> {
+			for (int i = next.getAndIncrement(); i < 120; i = next.getAndIncrement()) {
+				Order o = Fixtures.order("C" + (i % 40), "PW00" + (1 + i / 40), 7, Fixtures.DAY);
+				if (orders.tryAddNew(o, customers, menus) == null) bookedTables.addAndGet(7);
+			}
+		});
+		assertEquals(14 * 7, bookedTables.get()); // 100 / 7 = 14 don
+		assertEquals(100 - 14 * 7, orders.getCapacity().remaining(Fixtures.DAY));
+		assertEquals(14, orders.findByDate(LocalDate.ofEpochDay(Fixtures.DAY)).size());
+	}
+
+	@Test
+	void rejectedBookingReturnsItsTables() throws Exception {
+		Customers customers = Fixtures.customers(dir, 1);
+		FeastMenus menus = Fixtures.menus(dir);
+		ConcurrentOrders orders = new ConcurrentOrders(Fixtures.orders(dir));
+		// cung KH + menu + ngay: 1 don duoc dat, cac don trung phai tra lai ban da giu
+		runAll(() -> orders.tryAddNew(Fixtures.order("C0", "PW001", 30, Fixtures.DAY), customers, menus));
+		assertEquals(70, orders.getCapacity().remaining(Fixtures.DAY));
+
+		assertEquals(Orders.NO_CUSTOMER, orders.tryAddNew(Fixtures.order("C9", "PW001", 1, Fixtures.DAY), customers, menus));
+		assertEquals(Orders.NO_MENU, orders.tryAddNew(Fixtures.order("C0", "PW009", 1, Fixtures.DAY), customers, menus));
+		assertNotNull(orders.tryAddNew(Fixtures.order("C0", "PW002", 71, Fixtures.DAY), customers, menus));
+		assertEquals(70, orders.getCapacity().remaining(Fixtures.DAY));
+	}
+}
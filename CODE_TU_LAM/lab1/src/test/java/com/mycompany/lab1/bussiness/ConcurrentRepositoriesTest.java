@@ -0,0 +1,147 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConcurrentCustomers / ConcurrentOrders: nhieu thread cung them, doc trong luc ghi, dat trung cung luc.
+ */
+class ConcurrentRepositoriesTest {
+	private static final int THREADS = 8;
+
+	@TempDir
+	Path dir;
+
+	private ExecutorService pool;
+	private CountDownLatch start;
+
+	@BeforeEach
+	void startPool() {
+		pool = Executors.newFixedThreadPool(THREADS);
+		start = new CountDownLatch(1);
+	}
+
+	@AfterEach
+	void stopPool() throws InterruptedException {
+		pool.shutdownNow();
+		assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+	}
+
+	// chay task tren THREADS thread, bat dau cung luc, cho xong va nem lai loi neu co
+	private void runAll(IntTask task) throws Exception {
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int id = t;
+			futures.add(pool.submit(() -> {
+				start.await();
+				task.run(id);
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+	}
+
+	private interface IntTask {
+		void run(int thread) throws Exception;
+	}
+
+	@Test
+	void customersAddedFromManyThreadsAreAllFound() throws Exception {
+		ConcurrentCustomers customers = new ConcurrentCustomers(dir.resolve("customers.dat").toString());
+		int perThread = 500;
+		AtomicInteger missed = new AtomicInteger();
+		runAll(t -> {
+			for (int i = 0; i < perThread; i++) {
+				String id = "C" + (t * perThread + i);
+				assertNull(customers.tryAddNew(new Customer(id, "Nguyen Van " + id, "0900000000", id + "@mail.vn")));
+				if (customers.searchById(id) == null) missed.incrementAndGet(); // doc ngay sau khi ghi
+			}
+		});
+		assertEquals(0, missed.get());
+		assertEquals(THREADS * perThread, customers.size());
+		assertEquals(THREADS * perThread, customers.snapshot().size());
+		assertEquals(1, customers.filterByName("Nguyen Van C3001").size());
+	}
+
+	@Test
+	void sameIdFromManyThreadsIsAddedOnce() throws Exception {
+		ConcurrentCustomers customers = new ConcurrentCustomers(dir.resolve("customers.dat").toString());
+		AtomicInteger added = new AtomicInteger();
+		runAll(t -> {
+			if (customers.tryAddNew(new Customer("C0001", "KH " + t, null, null)) == null) added.incrementAndGet();
+		});
+		assertEquals(1, added.get());
+		assertEquals(1, customers.size());
+	}
+
+	@Test
+	void ordersPlacedFromManyThreadsGetDistinctCodes() throws Exception {
+		Customers customers = Fixtures.customers(dir, THREADS);
+		FeastMenus menus = Fixtures.menus(dir);
+		ConcurrentOrders orders = new ConcurrentOrders(Fixtures.orders(dir));
+		int perThread = 200;
+		List<Order> placed = new ArrayList<>();
+		runAll(t -> {
+			List<Order> mine = new ArrayList<>();
+			for (int i = 0; i < perThread; i++) {
+				// moi thread 1 KH, moi don 1 ngay: ko trung, ko het ban
+				Order o = Fixtures.order("C" + t, "PW001", 1, Fixtures.DAY + i);
+				assertNull(orders.tryAddNew(o, customers, menus));
+				assertSame(o, orders.searchById(o.getOrderCode()));
+				orders.findByCustomer("C" + t); // doc index phu trong luc thread khac ghi
+				mine.add(o);
+			}
+			synchronized (placed) {
+				placed.addAll(mine);
+			}
+		});
+
+		Set<String> codes = new HashSet<>();
+		for (Order o : placed) assertTrue(codes.add(o.getOrderCode()));
+		assertEquals(THREADS * perThread, orders.size());
+		assertEquals(THREADS * perThread, orders.snapshot().size());
+		assertEquals(perThread, orders.findByCustomer("C3").size());
+		assertEquals(THREADS, orders.findByDate(LocalDate.ofEpochDay(Fixtures.DAY)).size());
+		assertEquals(THREADS * perThread, orders.getCounters().snapshot().getTotal().getCount());
+	}
+
+	@Test
+	void duplicateBookingFromManyThreadsSucceedsOnce() throws Exception {
+		Customers customers = Fixtures.customers(dir, 1);
+		FeastMenus menus = Fixtures.menus(dir);
+		ConcurrentOrders orders = new ConcurrentOrders(Fixtures.orders(dir));
+		AtomicInteger ok = new AtomicInteger();
+		AtomicInteger duplicate = new AtomicInteger();
+		runAll(t -> {
+			String error = orders.tryAddNew(Fixtures.order("C0", "PW002", 2, Fixtures.DAY), customers, menus);
+			if (error == null) ok.incrementAndGet();
+			else if (Orders.DUPLICATE.equals(error)) duplicate.incrementAndGet();
+		});
+		assertEquals(1, ok.get());
+		assertEquals(THREADS - 1, duplicate.get());
+		assertEquals(100 - 2, orders.getCapacity().remaining(Fixtures.DAY));
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.SetMenu;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FeastMenus.reload: dong ko doi giu object cu, dong doi/them/xoa duoc bao, ko phu thuoc Locale may.
+ */
+class FeastMenusTest {
+	@TempDir
+	Path dir;
+
+	private Path csv;
+	private PrintStream stdout;
+	private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+	@BeforeEach
+	void captureOutput() {
+		csv = dir.resolve("menu.csv");
+		stdout = System.out;
+		System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+	}
+
+	@AfterEach
+	void restoreOutput() {
+		System.setOut(stdout);
+	}
+
+	private void write(String content) throws IOException {
+		Files.writeString(csv, content, StandardCharsets.UTF_8);
+	}
+
+	private String output() {
+		String s = out.toString(StandardCharsets.UTF_8);
+		out.reset();
+		return s;
+	}
+
+	@Test
+	void reloadReportsChangesAndKeepsUnchangedRows() throws IOException {
+		write("PW001,Tiec 1,1000000,Mon 1\nPW002,Tiec 2,2000000,Mon 2\nPW003,Tiec 3,3000000,Mon 3\n");
+		FeastMenus menus = new FeastMenus(csv.toString());
+		SetMenu kept = menus.getMenuById("PW001");
+		output();
+
+		write("PW001,Tiec 1,1000000,Mon 1\nPW002,Tiec 2,2500000,Mon 2\nPW004,Tiec 4,4000000,Mon 4\n");
+		menus.reload();
+		String log = output();
+
+		assertSame(kept, menus.getMenuById("PW001"));
+		assertEquals(2_500_000, menus.getMenuById("PW002").getPrice());
+		assertNull(menus.getMenuById("PW003"));
+		assertNotNull(menus.getMenuById("PW004"));
+		assertTrue(log.contains("Cap nhat thuc don PW002"), log);
+		assertTrue(log.contains("Them thuc don: PW004"), log);
+		assertTrue(log.contains("Xoa thuc don: PW003"), log);
+	}
+
+	@Test
+	void reloadMatchesIdsIndependentOfDefaultLocale() throws IOException {
+		Locale old = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr")); // "i".toUpperCase() = "İ"
+		try {
+			write("vip1,Tiec VIP,9000000,Mon\n");
+			FeastMenus menus = new FeastMenus(csv.toString());
+			output();
+
+			write("VIP1,Tiec VIP,9000000,Mon\n");
+			menus.reload();
+			String log = output();
+
+			// cung 1 thuc don, chi doi cach viet ma
+			assertTrue(log.contains("Cap nhat thuc don: VIP1"), log);
+			assertFalse(log.contains("Xoa thuc don"), log);
+			assertEquals("VIP1", menus.getMenuById("vip1").getMenuId());
+		}
+		finally {
+			Locale.setDefault(old);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Du lieu dung chung cho cac test tang nghiep vu: KH, thuc don, don trong thu muc tam (ko dung data/ that).
+ */
+final class Fixtures {
+	static final int DAY = 20000; // 10/10/2024
+
+	private Fixtures() {
+	}
+
+	// n KH: C0 .. C(n-1)
+	static Customers customers(Path dir, int n) {
+		Customers customers = new Customers(dir.resolve("customers.dat").toString());
+		for (int i = 0; i < n; i++) {
+			customers.tryAddNew(new Customer("C" + i, "Nguyen Van " + i, "0900000" + i, "kh" + i + "@mail.vn"));
+		}
+		return customers;
+	}
+
+	// 3 thuc don: PW001 = 1.000.000, PW002 = 2.000.000, PW003 = 3.000.000
+	static FeastMenus menus(Path dir) {
+		Path csv = dir.resolve("menu.csv");
+		try {
+			Files.writeString(csv, "PW001,Tiec 1,1000000,Mon 1\nPW002,Tiec 2,2000000,Mon 2\nPW003,Tiec 3,3000000,Mon 3\n",
+					StandardCharsets.UTF_8);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return new FeastMenus(csv.toString());
+	}
+
+	static Orders orders(Path dir) {
+		return new Orders(dir.resolve("orders.dat").toString(), Integer.MAX_VALUE);
+	}
+
+	static Order order(String customerId, String menuId, int tables, int epochDay) {
+		Order o = new Order();
+		o.setCustomerId(customerId);
+		o.setMenuId(menuId);
+		o.setNumOfTables(tables);
+		o.setEpochDay(epochDay);
+		return o;
+	}
+
+	// ban sao doc lap cua don (update nhan don moi, ko sua don dang nam trong list)
+	static Order copy(Order o) {
+		return new Order(o.getOrderCode(), o.getCustomerId(), o.getMenuId(), o.getNumOfTables(), o.getEpochDay(), o.getTotalVnd());
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Customer;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tim KH theo 1 phan ten: bo dau, ko phan biet hoa thuong, doi ten thi trigram cu bi go.
+ */
+class NameIndexTest {
+	@TempDir
+	Path dir;
+
+	private static List<String> ids(List<Customer> list) {
+		return list.stream().map(Customer::getId).toList();
+	}
+
+	@Test
+	void searchIgnoresMarksAndCaseAndSortsByName() {
+		NameIndex index = new NameIndex();
+		index.put(0, new Customer("C0", "Trần Văn Bình", null, null));
+		index.put(1, new Customer("C1", "Nguyễn Thị An", null, null));
+		index.put(2, new Customer("C2", "Đỗ Văn Nguyên", null, null));
+
+		assertEquals(List.of("C2", "C1"), ids(index.search("NGUYEN", 10)));
+		assertEquals(List.of("C2"), ids(index.search("do van", 10)));
+		assertEquals(List.of("C2", "C1"), ids(index.search("ng", 10))); // qua ngan, duyet het
+		assertEquals(List.of("C2"), ids(index.search("nguyen", 1)));
+		assertTrue(index.search("xyz", 10).isEmpty());
+	}
+
+	@Test
+	void renameRemovesOldPostings() {
+		NameIndex index = new NameIndex();
+		index.put(0, new Customer("C0", "Nguyen Van A", null, null));
+		int before = index.postingCount();
+
+		// doi ten qua lai nhieu lan: so posting ko tang, ten cu ko con tim thay
+		for (int i = 0; i < 10; i++) {
+			index.remove(0);
+			index.put(0, new Customer("C0", "Tran Thi Binh", null, null));
+			index.remove(0);
+			index.put(0, new Customer("C0", "Nguyen Van A", null, null));
+		}
+		assertEquals(before, index.postingCount());
+
+		index.remove(0);
+		index.put(0, new Customer("C0", "Tran Thi Binh", null, null));
+		assertTrue(index.search("nguyen", 10).isEmpty());
+		assertEquals(List.of("C0"), ids(index.search("binh", 10)));
+	}
+
+	@Test
+	void customersUpdateReindexesName() {
+		Customers customers = Fixtures.customers(dir, 3);
+		assertNull(customers.tryUpdate(new Customer("C1", "Le Hoang Yen", "0900001", "y@mail.vn")));
+
+		assertTrue(customers.filterByName("Nguyen Van 1").isEmpty());
+		assertEquals(List.of("C1"), ids(customers.filterByName("hoang yen")));
+		assertEquals(List.of("C0", "C2"), ids(customers.filterByName("nguyen van")));
+
+		// nap lai tu journal: UPDATE cung go ten cu
+		Customers reloaded = new Customers(dir.resolve("customers.dat").toString());
+		reloaded.readFromFile();
+		assertTrue(reloaded.filterByName("Nguyen Van 1").isEmpty());
+		assertEquals(List.of("C1"), ids(reloaded.filterByName("hoang")));
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Order;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OrderColumnStore: tim theo ma qua nhieu khoi, huy, thong ke theo ngay/menu/KH, khoang ngay mo.
+ */
+class OrderColumnStoreTest {
+	private static final LocalDate DAY = LocalDate.ofEpochDay(Fixtures.DAY);
+
+	private OrderColumnStore store;
+
+	@BeforeEach
+	void data() {
+		store = new OrderColumnStore();
+		store.addNew(new Order("A1", "C0", "PW001", 2, Fixtures.DAY, 2_000_000L));
+		store.addNew(new Order("A2", "C1", "PW002", 3, Fixtures.DAY + 1, 6_000_000L));
+		store.addNew(new Order("A3", "C0", "PW002", 1, Fixtures.DAY + 2, 2_000_000L));
+		store.addNew(new Order("A4", "C1", "PW001", 5, Order.NO_DATE, 5_000_000L));
+	}
+
+	@Test
+	void revenueBetweenTreatsNullBoundAsOpen() {
+		assertEquals(15_000_000L, store.totalRevenue());
+		assertEquals(8_000_000L, store.revenueBetween(DAY, DAY.plusDays(1)));
+		assertEquals(8_000_000L, store.revenueBetween(null, DAY.plusDays(1)));
+		assertEquals(8_000_000L, store.revenueBetween(DAY.plusDays(1), null));
+		// don chua co ngay ko thuoc khoang ngay nao
+		assertEquals(10_000_000L, store.revenueBetween(null, null));
+		assertEquals(0, store.revenueBetween(DAY.plusDays(2), DAY));
+	}
+
+	@Test
+	void cancelledRowsAreSkipped() {
+		assertTrue(store.cancel("a2"));
+		assertFalse(store.cancel("A2"));
+		assertEquals(3, store.count());
+		assertNull(store.searchById("A2"));
+		assertEquals(9_000_000L, store.totalRevenue());
+		assertEquals(0, store.tablesOn(DAY.plusDays(1)));
+		assertEquals(2_000_000L, store.revenueByMenu().get("PW002"));
+	}
+
+	@Test
+	void aggregatesByMenuAndCustomer() {
+		assertEquals(7_000_000L, store.revenueByMenu().get("PW001"));
+		assertEquals(8_000_000L, store.revenueByMenu().get("PW002"));
+		assertEquals(4_000_000L, store.revenueByCustomer().get("C0"));
+		assertEquals(11_000_000L, store.revenueByCustomer().get("C1"));
+		assertEquals(2, store.tablesOn(DAY));
+	}
+
+	@Test
+	void lookupAcrossChunksAndRehash() {
+		OrderColumnStore big = new OrderColumnStore();
+		int n = 10_000; // > 2 khoi 4096 dong, bang bam gap doi nhieu lan
+		for (int i = 0; i < n; i++) {
+			big.addNew(new Order("M" + i, "C" + (i % 7), "PW00" + (1 + i % 3), 1, Fixtures.DAY + i % 30, 1000L));
+		}
+		assertEquals(n, big.count());
+		assertEquals(n * 1000L, big.totalRevenue());
+		Order o = big.searchById("m9999");
+		assertEquals("C" + (9999 % 7), o.getCustomerId());
+		assertEquals(Fixtures.DAY + 9999 % 30, o.getEpochDay());
+		assertEquals(n, big.stream().count());
+	}
+}
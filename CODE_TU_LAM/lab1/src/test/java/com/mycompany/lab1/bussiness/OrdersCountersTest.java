@@ -0,0 +1,78 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Order;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LiveCounters cua Orders cap nhat dan phai bang dem lai tu dau, ke ca khi sua thang don dang nam trong list.
+ */
+class OrdersCountersTest {
+	@TempDir
+	Path dir;
+
+	private Orders orders;
+	private Order first;
+	private Order second;
+
+	@BeforeEach
+	void data() {
+		Customers customers = Fixtures.customers(dir, 3);
+		FeastMenus menus = Fixtures.menus(dir);
+		orders = Fixtures.orders(dir);
+		first = Fixtures.order("C0", "PW001", 2, Fixtures.DAY);
+		second = Fixtures.order("C1", "PW002", 3, Fixtures.DAY + 40);
+		assertNull(orders.tryAddNew(first, customers, menus));
+		assertNull(orders.tryAddNew(second, customers, menus));
+		assertNull(orders.tryAddNew(Fixtures.order("C2", "PW003", 1, Fixtures.DAY), customers, menus));
+		assertCountersMatch();
+	}
+
+	private void assertCountersMatch() {
+		LiveCounters fresh = new LiveCounters();
+		for (Order o : orders) fresh.add(o);
+		assertTrue(fresh.sameAs(orders.getCounters()), "bo dem lech so voi dem lai");
+		assertEquals(fresh.getTotal(), orders.getCounters().getTotal());
+	}
+
+	@Test
+	void updateOfStoredObjectMovesCounters() {
+		Order stored = orders.searchById(first.getOrderCode());
+		assertSame(first, stored);
+		stored.setEpochDay(Fixtures.DAY + 70); // sang thang khac
+		stored.setNumOfTables(5);
+		stored.setMenuId("PW003");
+		stored.setTotalVnd(15_000_000L);
+		orders.update(stored);
+
+		assertCountersMatch();
+		assertEquals(18_000_000L, orders.getCounters().snapshot().getByMenu().get("PW003").getRevenue()); // + don C2 3.000.000
+	}
+
+	@Test
+	void updateWithCopyMovesCounters() {
+		Order changed = Fixtures.copy(second);
+		changed.setEpochDay(Fixtures.DAY);
+		changed.setNumOfTables(4);
+		changed.setMenuId("PW001");
+		changed.setTotalVnd(4_000_000L);
+		orders.update(changed);
+
+		assertCountersMatch();
+		assertNull(orders.getCounters().snapshot().getByMenu().get("PW002"));
+	}
+
+	@Test
+	void cancelRemovesFromCounters() {
+		assertNull(orders.tryCancel(second.getOrderCode()));
+		assertCountersMatch();
+	}
+}
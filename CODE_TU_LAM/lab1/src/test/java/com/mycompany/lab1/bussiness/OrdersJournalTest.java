@@ -0,0 +1,90 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Order;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Orders nap lai tu journal (chua luu snapshot) va tu snapshot sau khi luu.
+ */
+class OrdersJournalTest {
+	@TempDir
+	Path dir;
+
+	private Customers customers;
+	private FeastMenus menus;
+
+	@BeforeEach
+	void data() {
+		customers = Fixtures.customers(dir, 3);
+		menus = Fixtures.menus(dir);
+	}
+
+	@Test
+	void addUpdateCancelAreReplayedFromJournal() {
+		Orders orders = Fixtures.orders(dir);
+		Order a = Fixtures.order("C0", "PW001", 2, Fixtures.DAY);
+		Order b = Fixtures.order("C1", "PW002", 3, Fixtures.DAY);
+		Order c = Fixtures.order("C2", "PW003", 1, Fixtures.DAY + 1);
+		assertNull(orders.tryAddNew(a, customers, menus));
+		assertNull(orders.tryAddNew(b, customers, menus));
+		assertNull(orders.tryAddNew(c, customers, menus));
+
+		Order changed = Fixtures.copy(b);
+		changed.setNumOfTables(5);
+		orders.update(changed);
+		assertNull(orders.tryCancel(c.getOrderCode()));
+
+		// ko luu snapshot: nap lai chi tu journal
+		Orders reloaded = Fixtures.orders(dir);
+		assertEquals(2, reloaded.size());
+		assertNotNull(reloaded.searchById(a.getOrderCode()));
+		assertEquals(5, reloaded.searchById(b.getOrderCode()).getNumOfTables());
+		assertNull(reloaded.searchById(c.getOrderCode()));
+		assertEquals(100 - 2 - 5, reloaded.getCapacity().remaining(Fixtures.DAY));
+		assertEquals(100, reloaded.getCapacity().remaining(Fixtures.DAY + 1));
+	}
+
+	@Test
+	void saveCompactsJournalIntoSnapshot() {
+		Orders orders = Fixtures.orders(dir);
+		Order a = Fixtures.order("C0", "PW001", 2, Fixtures.DAY);
+		Order b = Fixtures.order("C1", "PW002", 3, Fixtures.DAY);
+		assertNull(orders.tryAddNew(a, customers, menus));
+		assertNull(orders.tryAddNew(b, customers, menus));
+		assertNull(orders.tryCancel(a.getOrderCode()));
+
+		assertTrue(orders.saveToFileAsync().join());
+		assertFalse(dir.resolve("orders.journal").toFile().exists());
+
+		Orders reloaded = Fixtures.orders(dir);
+		assertEquals(1, reloaded.size());
+		assertEquals(b.getOrderCode(), reloaded.get(0).getOrderCode());
+		assertEquals(3 * 2_000_000L, reloaded.get(0).getTotalVnd());
+	}
+
+	@Test
+	void cancelledCodesArePrunedAfterSave() {
+		// huy sau khi luu: don van con trong file cho toi lan luu sau, lich su phai loc ra
+		Orders orders = Fixtures.orders(dir);
+		Order a = Fixtures.order("C0", "PW001", 2, Fixtures.DAY);
+		Order b = Fixtures.order("C1", "PW002", 3, Fixtures.DAY);
+		assertNull(orders.tryAddNew(a, customers, menus));
+		assertNull(orders.tryAddNew(b, customers, menus));
+		assertTrue(orders.saveToFileAsync().join());
+		assertNull(orders.tryCancel(a.getOrderCode()));
+		assertEquals(1, orders.streamHistory().count());
+
+		assertTrue(orders.saveToFileAsync().join());
+		assertEquals(1, orders.streamHistory().count());
+		assertEquals(1, Fixtures.orders(dir).size());
+	}
+}
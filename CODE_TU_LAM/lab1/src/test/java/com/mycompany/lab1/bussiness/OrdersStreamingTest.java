@@ -0,0 +1,89 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.bussiness;
+
+import com.mycompany.lab1.model.Order;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Orders voi maxInMemory: chi giu cac don cuoi trong RAM, don cu van tinh trong lich su, so ban, so lieu.
+ */
+class OrdersStreamingTest {
+	@TempDir
+	Path dir;
+
+	private List<Order> placed = new ArrayList<>();
+
+	// 5 don (2 ban/don) cung 1 ngay, da luu snapshot
+	@BeforeEach
+	void data() {
+		Customers customers = Fixtures.customers(dir, 5);
+		FeastMenus menus = Fixtures.menus(dir);
+		Orders orders = Fixtures.orders(dir);
+		for (int i = 0; i < 5; i++) {
+			Order o = Fixtures.order("C" + i, "PW001", 2, Fixtures.DAY);
+			assertNull(orders.tryAddNew(o, customers, menus));
+			placed.add(o);
+		}
+		assertTrue(orders.saveToFileAsync().join());
+	}
+
+	private Orders load(int maxInMemory) {
+		return new Orders(dir.resolve("orders.dat").toString(), maxInMemory);
+	}
+
+	private static List<String> codes(Stream<Order> s) {
+		try (s) {
+			return s.map(Order::getOrderCode).collect(Collectors.toList());
+		}
+	}
+
+	@Test
+	void keepsOnlyNewestOrdersInMemory() {
+		Orders orders = load(2);
+		assertEquals(2, orders.size());
+		assertEquals(3, orders.getArchivedCount());
+		assertEquals(placed.get(3).getOrderCode(), orders.get(0).getOrderCode());
+		assertEquals(placed.get(4).getOrderCode(), orders.get(1).getOrderCode());
+		assertNull(orders.searchById(placed.get(0).getOrderCode()));
+	}
+
+	@Test
+	void historyStreamsArchivedAndInMemoryOrders() {
+		Orders orders = load(2);
+		assertEquals(codes(placed.stream()), codes(orders.streamHistory()));
+		assertEquals(5, orders.toColumnStore().count());
+	}
+
+	@Test
+	void archivedOrdersStillCountTowardsCapacityAndCounters() {
+		Orders orders = load(2);
+		assertEquals(100 - 5 * 2, orders.getCapacity().remaining(Fixtures.DAY));
+		assertEquals(5, orders.getCounters().snapshot().getTotal().getCount());
+		assertEquals(5 * 2 * 1_000_000L, orders.getCounters().snapshot().getTotal().getRevenue());
+	}
+
+	@Test
+	void cancelledOrderLeavesHistoryBeforeAndAfterSave() {
+		Orders orders = load(2);
+		String gone = placed.get(4).getOrderCode();
+		assertNull(orders.tryCancel(gone));
+		assertFalse(codes(orders.streamHistory()).contains(gone));
+
+		assertTrue(orders.saveToFileAsync().join());
+		Orders reloaded = load(2);
+		assertEquals(4, reloaded.size() + reloaded.getArchivedCount());
+		assertFalse(codes(reloaded.streamHistory()).contains(gone));
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.dispathcher;
+
+import com.mycompany.lab1.bussiness.ConcurrentCustomers;
+import com.mycompany.lab1.bussiness.ConcurrentOrders;
+import com.mycompany.lab1.bussiness.FeastMenus;
+import com.mycompany.lab1.bussiness.Orders;
+import com.mycompany.lab1.model.Customer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ApiServer: khop dung duong dan, ma loi khi dat don, loi 500 ko lo chi tiet ra client.
+ */
+class ApiServerTest {
+	@TempDir
+	Path dir;
+
+	private ApiServer server;
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@AfterEach
+	void stop() {
+		if (server != null) server.stop();
+	}
+
+	private void start(FeastMenus menus) throws IOException {
+		ConcurrentCustomers customers = new ConcurrentCustomers(dir.resolve("customers.dat").toString());
+		customers.tryAddNew(new Customer("C0001", "Nguyen Van A", "0912345678", "a@mail.vn"));
+		ConcurrentOrders orders = new ConcurrentOrders(new Orders(dir.resolve("orders.dat").toString(), Integer.MAX_VALUE));
+		server = new ApiServer(customers, menus, orders);
+		server.start(0);
+	}
+
+	private FeastMenus menus() throws IOException {
+		Path csv = dir.resolve("menu.csv");
+		Files.writeString(csv, "PW001,Tiec 1,1000000,Mon 1\n", StandardCharsets.UTF_8);
+		return new FeastMenus(csv.toString());
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		HttpRequest req = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).GET().build();
+		return client.send(req, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpResponse<String> post(String path, String json) throws Exception {
+		HttpRequest req = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+				.POST(HttpRequest.BodyPublishers.ofString(json)).build();
+		return client.send(req, HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Test
+	void onlyExactBaseOrSubPathIsRouted() throws Exception {
+		start(menus());
+		assertEquals(200, get("/customers/C0001").statusCode());
+		assertEquals(200, get("/menus").statusCode());
+		assertEquals(404, get("/customersXYZ").statusCode());
+		assertEquals(404, get("/menus.bak").statusCode());
+	}
+
+	@Test
+	void bookingErrorsMapToStatusCodes() throws Exception {
+		start(menus());
+		String ok = "{\"customerId\":\"C0001\",\"menuId\":\"PW001\",\"tables\":\"2\",\"date\":\"2026-12-01\"}";
+		assertEquals(201, post("/orders", ok).statusCode());
+		assertEquals(409, post("/orders", ok).statusCode()); // trung don
+		assertEquals(400, post("/orders", ok.replace("C0001", "C0002")).statusCode());
+		assertEquals(400, post("/orders", ok.replace("PW001", "PW009")).statusCode());
+	}
+
+	@Test
+	void serverErrorHidesDetailsFromClient() throws Exception {
+		start(null); // ko co thuc don: GET /menus loi NullPointerException
+		PrintStream stderr = System.err;
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		System.setErr(new PrintStream(log, true, StandardCharsets.UTF_8));
+		HttpResponse<String> res;
+		try {
+			res = get("/menus");
+		}
+		finally {
+			System.setErr(stderr);
+		}
+		assertEquals(500, res.statusCode());
+		assertEquals("{\"error\":\"Loi server\"}", res.body());
+		assertTrue(log.toString(StandardCharsets.UTF_8).contains("NullPointerException"));
+	}
+}
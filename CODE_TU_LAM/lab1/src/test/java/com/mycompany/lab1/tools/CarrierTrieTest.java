@@ -0,0 +1,52 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CarrierTrie: file data/carriers.csv la nguon chinh, DEFAULTS phai khop voi file; tien to dai nhat thang.
+ */
+class CarrierTrieTest {
+	@TempDir
+	Path dir;
+
+	@Test
+	void defaultsMatchShippedCsv() {
+		CarrierTrie fromFile = CarrierTrie.load(Paths.get(CarrierTrie.PATH));
+		CarrierTrie defaults = CarrierTrie.defaults();
+		for (int p = 0; p < 1000; p++) {
+			String phone = String.format("%03d", p) + "1234567";
+			assertEquals(defaults.classify(phone), fromFile.classify(phone), "dau so " + phone.substring(0, 3));
+		}
+	}
+
+	@Test
+	void csvWinsOverDefaults() throws IOException {
+		Path csv = dir.resolve("carriers.csv");
+		Files.writeString(csv, "# thu\n098,Viettel\n0981,MangRieng\nabc,Sai\n", StandardCharsets.UTF_8);
+		CarrierTrie t = CarrierTrie.load(csv);
+		assertEquals("Viettel", t.classify("0980000000"));
+		assertEquals("MangRieng", t.classify("0981000000")); // tien to dai nhat
+		assertNull(t.classify("0912345678"));                // co trong DEFAULTS nhung ko co trong file
+		assertNull(t.classify("09a0000000"));
+	}
+
+	@Test
+	void missingOrEmptyFileFallsBackToDefaults() throws IOException {
+		assertEquals("Vinaphone", CarrierTrie.load(dir.resolve("none.csv")).classify("0912345678"));
+		Path empty = dir.resolve("empty.csv");
+		Files.writeString(empty, "# chi co ghi chu\n", StandardCharsets.UTF_8);
+		assertEquals("Mobifone", CarrierTrie.load(empty).classify("0901234567"));
+	}
+}
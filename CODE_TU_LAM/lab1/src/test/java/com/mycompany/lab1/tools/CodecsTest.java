@@ -0,0 +1,162 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.model.SetMenu;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ghi roi doc lai file .dat qua Codecs: moi field giu nguyen, ke ca null va don chua co ngay.
+ */
+class CodecsTest {
+	@TempDir
+	Path dir;
+
+	private String file(String name) {
+		return dir.resolve(name).toString();
+	}
+
+	@Test
+	void customerRoundTrip() {
+		List<Customer> list = List.of(
+				new Customer("C0001", "Nguyen Van A", "0912345678", "a@mail.vn"),
+				new Customer("K0002", "Tran Thi Bé", null, null)); // chuoi co dau, field null
+		assertTrue(FileUtils.writeToFile(list, file("customers.dat"), Codecs.CUSTOMER));
+
+		List<Customer> read = FileUtils.readFromFile(file("customers.dat"), Codecs.CUSTOMER);
+		assertEquals(2, read.size());
+		assertEquals("C0001", read.get(0).getId());
+		assertEquals("0912345678", read.get(0).getPhone());
+		assertEquals("Tran Thi Bé", read.get(1).getName());
+		assertNull(read.get(1).getPhone());
+		assertNull(read.get(1).getEmail());
+	}
+
+	@Test
+	void orderRoundTrip() {
+		List<Order> list = List.of(
+				new Order("0000000000001", "C0001", "PW001", 3, 20000, 15_000_000L),
+				new Order("0000000000002", "C0001", "PW001", 1, Order.NO_DATE, 0L),      // id lap lai -> bang chuoi
+				new Order("0000000000003", null, null, 250, -1, 9_000_000_000_000L));    // truoc 1970, tien > int
+		assertTrue(FileUtils.writeToFile(list, file("orders.dat"), Codecs.ORDER));
+
+		List<Order> read = FileUtils.readFromFile(file("orders.dat"), Codecs.ORDER);
+		assertEquals(3, read.size());
+		for (int i = 0; i < list.size(); i++) {
+			Order expected = list.get(i);
+			Order actual = read.get(i);
+			assertEquals(expected.getOrderCode(), actual.getOrderCode());
+			assertEquals(expected.getCustomerId(), actual.getCustomerId());
+			assertEquals(expected.getMenuId(), actual.getMenuId());
+			assertEquals(expected.getNumOfTables(), actual.getNumOfTables());
+			assertEquals(expected.getEpochDay(), actual.getEpochDay());
+			assertEquals(expected.getTotalVnd(), actual.getTotalVnd());
+		}
+	}
+
+	@Test
+	void setMenuRoundTrip() {
+		List<SetMenu> list = List.of(new SetMenu("PW001", "Tiec Cuoi", 5_000_000, "Lau, \"vit\" quay"));
+		assertTrue(FileUtils.writeToFile(list, file("menus.dat"), Codecs.SET_MENU));
+
+		SetMenu read = FileUtils.readFromFile(file("menus.dat"), Codecs.SET_MENU).get(0);
+		assertEquals("PW001", read.getMenuId());
+		assertEquals("Tiec Cuoi", read.getMenuName());
+		assertEquals(5_000_000, read.getPrice());
+		assertEquals("Lau, \"vit\" quay", read.getIngredients());
+	}
+
+	@Test
+	void fractionalMenuPriceIsStoredAsWholeVnd() {
+		List<SetMenu> list = List.of(new SetMenu("PW001", "Tiec", 1_999_999.6, "Mon"));
+		assertTrue(FileUtils.writeToFile(list, file("menus.dat"), Codecs.SET_MENU));
+		assertEquals(2_000_000, FileUtils.readFromFile(file("menus.dat"), Codecs.SET_MENU).get(0).getPrice());
+	}
+
+	@Test
+	void orderWrittenByVersion2IsStillReadable() throws IOException {
+		// version 2: ngay = millis luc 0h theo mui gio may, tien = double
+		StringTable table = new StringTable();
+		table.add("C0001");
+		table.add("PW001");
+		try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(file("v2.dat")))) {
+			dos.writeInt(FileUtils.MAGIC);
+			dos.writeShort(2);
+			dos.writeByte(Compression.NONE.getId());
+			dos.writeInt(2);
+			table.writeTo(dos);
+			Codecs.writeString(dos, "0000000000001");
+			table.writeRef(dos, "C0001");
+			table.writeRef(dos, "PW001");
+			Codecs.writeVarInt(dos, 3);
+			dos.writeLong(Dates.toMillis(20000));
+			dos.writeDouble(15_000_000.0);
+			Codecs.writeString(dos, "0000000000002");
+			table.writeRef(dos, "C0001");
+			table.writeRef(dos, "PW001");
+			Codecs.writeVarInt(dos, 1);
+			dos.writeLong(Long.MIN_VALUE); // chua co ngay
+			dos.writeDouble(0);
+		}
+
+		List<Order> read = FileUtils.readFromFile(file("v2.dat"), Codecs.ORDER);
+		assertEquals(2, read.size());
+		assertEquals(20000, read.get(0).getEpochDay());
+		assertEquals(15_000_000L, read.get(0).getTotalVnd());
+		assertEquals(Order.NO_DATE, read.get(1).getEpochDay());
+	}
+
+	@Test
+	void signedVarIntRoundTrip() throws IOException {
+		int[] values = {0, 1, -1, 63, -64, 20000, -20000, Integer.MAX_VALUE, Integer.MIN_VALUE};
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream dos = new DataOutputStream(bytes)) {
+			for (int v : values) Codecs.writeSignedVarInt(dos, v);
+		}
+		DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		for (int v : values) assertEquals(v, Codecs.readSignedVarInt(dis));
+	}
+
+	@Test
+	void emptyListRoundTrip() {
+		assertTrue(FileUtils.writeToFile(List.<Customer>of(), file("empty.dat"), Codecs.CUSTOMER));
+		assertTrue(FileUtils.readFromFile(file("empty.dat"), Codecs.CUSTOMER).isEmpty());
+	}
+
+	@Test
+	void legacySerializedFileIsStillReadable() throws IOException {
+		try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file("legacy.dat")))) {
+			oos.writeObject(new Customer("C0001", "Nguyen Van A", "0912345678", "a@mail.vn"));
+			oos.writeObject(new Customer("C0002", "Le Van B", "0987654321", "b@mail.vn"));
+		}
+
+		List<Customer> read = FileUtils.readFromFile(file("legacy.dat"), Codecs.CUSTOMER);
+		assertEquals(Arrays.asList("C0001", "C0002"), read.stream().map(Customer::getId).toList());
+	}
+
+	@Test
+	void newerVersionIsRejected() throws IOException {
+		try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(file("future.dat")))) {
+			dos.writeInt(FileUtils.MAGIC);
+			dos.writeShort(FileUtils.SCHEMA_VERSION + 1);
+		}
+		assertThrows(IOException.class, () -> FileUtils.openReader(file("future.dat"), Codecs.CUSTOMER));
+	}
+}
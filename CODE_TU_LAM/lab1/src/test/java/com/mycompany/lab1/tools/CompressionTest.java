@@ -0,0 +1,79 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import com.mycompany.lab1.model.Order;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * File .dat theo tung kieu nen: doc lai dung, nhieu khoi 64KB, kieu nen doc tu header.
+ */
+class CompressionTest {
+	@TempDir
+	Path dir;
+
+	// du lieu du lon de qua nhieu khoi nen
+	private static List<Order> orders(int n) {
+		List<Order> list = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			list.add(new Order(String.format("%013d", i), "C" + (i % 500), "PW00" + (1 + i % 8), 1 + i % 50,
+					20000 + i % 730, (1 + i % 50) * 2_500_000L));
+		}
+		return list;
+	}
+
+	@ParameterizedTest
+	@EnumSource(Compression.class)
+	void roundTripAcrossBlocks(Compression compression) {
+		List<Order> list = orders(20_000);
+		String path = dir.resolve("orders.dat").toString();
+		assertTrue(FileUtils.writeToFile(list, path, Codecs.ORDER, compression));
+
+		List<Order> read = FileUtils.readFromFile(path, Codecs.ORDER);
+		assertEquals(list.size(), read.size());
+		for (int i = 0; i < list.size(); i += 997) {
+			assertEquals(list.get(i).getOrderCode(), read.get(i).getOrderCode());
+			assertEquals(list.get(i).getCustomerId(), read.get(i).getCustomerId());
+			assertEquals(list.get(i).getEpochDay(), read.get(i).getEpochDay());
+			assertEquals(list.get(i).getTotalVnd(), read.get(i).getTotalVnd());
+		}
+		assertEquals(list.get(list.size() - 1).getOrderCode(), read.get(read.size() - 1).getOrderCode());
+	}
+
+	@Test
+	void compressedFileIsSmallerAndReadRegardlessOfDefault() {
+		List<Order> list = orders(20_000);
+		String plain = dir.resolve("plain.dat").toString();
+		String packed = dir.resolve("packed.dat").toString();
+		assertTrue(FileUtils.writeToFile(list, plain, Codecs.ORDER, Compression.NONE));
+		assertTrue(FileUtils.writeToFile(list, packed, Codecs.ORDER, Compression.DEFLATE));
+		assertTrue(new File(packed).length() < new File(plain).length());
+
+		// kieu nen lay tu header file, ko phai tu cau hinh hien tai
+		Compression old = FileUtils.getCompression();
+		FileUtils.setCompression(Compression.NONE);
+		try {
+			assertEquals(list.size(), FileUtils.readFromFile(packed, Codecs.ORDER).size());
+		}
+		finally {
+			FileUtils.setCompression(old);
+		}
+	}
+
+	@Test
+	void unknownNameFallsBackToNone() {
+		assertEquals(Compression.DEFLATE_FAST, Compression.fromName("deflate_fast"));
+		assertEquals(Compression.NONE, Compression.fromName("zstd"));
+	}
+}
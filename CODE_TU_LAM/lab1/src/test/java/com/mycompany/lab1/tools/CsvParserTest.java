@@ -0,0 +1,104 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import com.mycompany.lab1.model.SetMenu;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CsvParser: ngoac kep, CRLF, tieu de, dong loi kem so dong, gia thap phan, file lon doc song song.
+ */
+class CsvParserTest {
+	@TempDir
+	Path dir;
+
+	private List<String> errors = new ArrayList<>();
+
+	private List<SetMenu> parse(String content) throws IOException {
+		Path csv = dir.resolve("menu.csv");
+		Files.writeString(csv, content, StandardCharsets.UTF_8);
+		return CsvParser.parseMenus(csv.toString(), errors);
+	}
+
+	@Test
+	void headerBomAndBlankLinesAreSkipped() throws IOException {
+		List<SetMenu> list = parse("﻿Code,Name,Price,Ingredients\n\nPW001,Tiec Cuoi,5000000,Lau\n\n");
+		assertEquals(1, list.size());
+		assertEquals("PW001", list.get(0).getMenuId());
+		assertTrue(errors.isEmpty());
+	}
+
+	@Test
+	void quotedFieldsAndEscapedQuotes() throws IOException {
+		List<SetMenu> list = parse("PW001,\"Tiec \"\"VIP\"\"\",5000000,\"Lau, vit quay\"\n");
+		assertEquals("Tiec \"VIP\"", list.get(0).getMenuName());
+		assertEquals("Lau, vit quay", list.get(0).getIngredients());
+	}
+
+	@Test
+	void unquotedIngredientsKeepTheirCommas() throws IOException {
+		List<SetMenu> list = parse("PW001,Tiec Cuoi,5000000,Lau ca, vit quay, goi cuon\n");
+		assertEquals("Lau ca, vit quay, goi cuon", list.get(0).getIngredients());
+	}
+
+	@Test
+	void crlfIsStrippedButEmbeddedCrIsKept() throws IOException {
+		List<SetMenu> list = parse("PW001,Tiec\rCuoi,5000000,Lau\r\nPW002,Tiec 2,2000000,Mi\r");
+		assertEquals(2, list.size());
+		assertEquals("Tiec\rCuoi", list.get(0).getMenuName());
+		assertEquals("Lau", list.get(0).getIngredients());
+		assertEquals("Mi", list.get(1).getIngredients());
+	}
+
+	@Test
+	void decimalPricesAreCorrectlyRounded() throws IOException {
+		List<SetMenu> list = parse("A,a,0.3,x\nB,b,1234567.89,x\nC,c, 2000000 ,x\nD,d,7.,x\n");
+		assertEquals(0.3, list.get(0).getPrice());
+		assertEquals(1234567.89, list.get(1).getPrice());
+		assertEquals(2_000_000, list.get(2).getPrice());
+		assertEquals(7, list.get(3).getPrice());
+	}
+
+	@Test
+	void badLinesAreReportedWithLineNumbers() throws IOException {
+		List<SetMenu> list = parse("PW001,Tiec 1,1000000,Mon 1\n"
+				+ "PW002,Tiec 2,abc,Mon 2\n"
+				+ "PW003,Tiec 3\n"
+				+ "PW004,\"Tiec 4,4000000,Mon 4\n"
+				+ ",Tiec 5,5000000,Mon 5\n"
+				+ "PW006,Tiec 6,6000000,Mon 6\n");
+		assertEquals(List.of("PW001", "PW006"), list.stream().map(SetMenu::getMenuId).toList());
+		assertEquals(4, errors.size());
+		assertTrue(errors.get(0).startsWith("Dong 2: "), errors.get(0));
+		assertTrue(errors.get(1).startsWith("Dong 3: "), errors.get(1));
+		assertTrue(errors.get(2).startsWith("Dong 4: "), errors.get(2));
+		assertTrue(errors.get(3).startsWith("Dong 5: "), errors.get(3));
+	}
+
+	@Test
+	void largeFileKeepsOrderAndLineNumbers() throws IOException {
+		// > 1 MB: cat thanh nhieu doan doc song song
+		int n = 30_000;
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < n; i++) {
+			if (i == n - 1) sb.append("BAD,line,x,y\n");
+			else sb.append("M").append(i).append(",Tiec so ").append(i).append(',').append(1_000_000 + i)
+					.append(",Mon chinh, mon phu, trang mieng cho tiec so ").append(i).append('\n');
+		}
+		List<SetMenu> list = parse(sb.toString());
+		assertEquals(n - 1, list.size());
+		for (int i = 0; i < n - 1; i++) assertEquals("M" + i, list.get(i).getMenuId());
+		assertEquals(List.of("Dong " + n + ": gia khong hop le 'x'"), errors);
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Journal: ghi them / doc lai, ban ghi cuoi bi cat ngang, compact vao snapshot.
+ */
+class JournalTest {
+	@TempDir
+	Path dir;
+
+	private String snapshot() {
+		return dir.resolve("customers.dat").toString();
+	}
+
+	private static Customer customer(int i) {
+		return new Customer("C" + i, "Nguyen Van " + i, "0900000" + i, "kh" + i + "@mail.vn");
+	}
+
+	@Test
+	void readAllReplaysEntriesInOrder() {
+		Journal<Customer> journal = new Journal<>(snapshot(), Codecs.CUSTOMER, 1000);
+		journal.append(Journal.ADD, customer(1));
+		journal.appendAll(Journal.ADD, List.of(customer(2), customer(3)));
+		journal.append(Journal.UPDATE, new Customer("C2", "Tran Thi B", "0911111111", "b@mail.vn"));
+		journal.append(Journal.CANCEL, customer(3));
+
+		// doi tuong moi, doc lai tu file
+		List<Journal.Entry<Customer>> entries = new Journal<>(snapshot(), Codecs.CUSTOMER, 1000).readAll();
+		assertEquals(5, entries.size());
+		assertEquals(Journal.ADD, entries.get(0).getOp());
+		assertEquals("C1", entries.get(0).getData().getId());
+		assertEquals("C3", entries.get(2).getData().getId());
+		assertEquals(Journal.UPDATE, entries.get(3).getOp());
+		assertEquals("Tran Thi B", entries.get(3).getData().getName());
+		assertEquals(Journal.CANCEL, entries.get(4).getOp());
+	}
+
+	@Test
+	void truncatedTailIsDropped() throws IOException {
+		Journal<Customer> journal = new Journal<>(snapshot(), Codecs.CUSTOMER, 1000);
+		journal.append(Journal.ADD, customer(1));
+		journal.append(Journal.ADD, customer(2));
+
+		// tat may giua luc ghi: mat vai byte cuoi cua ban ghi thu 2
+		File file = dir.resolve("customers.journal").toFile();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 3);
+		}
+
+		List<Journal.Entry<Customer>> entries = new Journal<>(snapshot(), Codecs.CUSTOMER, 1000).readAll();
+		assertEquals(1, entries.size());
+		assertEquals("C1", entries.get(0).getData().getId());
+	}
+
+	@Test
+	void compactWritesSnapshotAndDeletesSegments() {
+		Journal<Customer> journal = new Journal<>(snapshot(), Codecs.CUSTOMER, 2);
+		journal.append(Journal.ADD, customer(1));
+		journal.append(Journal.ADD, customer(2));
+		assertTrue(journal.needCompact(2));
+
+		assertTrue(journal.compact(List.of(customer(1), customer(2))));
+		assertFalse(dir.resolve("customers.journal").toFile().exists());
+		assertFalse(dir.resolve("customers.journal.1").toFile().exists());
+		assertTrue(journal.readAll().isEmpty());
+
+		List<Customer> saved = FileUtils.readFromFile(snapshot(), Codecs.CUSTOMER);
+		assertEquals(2, saved.size());
+		assertEquals("C2", saved.get(1).getId());
+	}
+
+	@Test
+	void journalWithoutHeaderIsReadAndNotAppendedTo() throws IOException {
+		// journal version 2: ko co header, ban ghi don theo dinh dang cu (millis + double)
+		String path = dir.resolve("orders.dat").toString();
+		File file = dir.resolve("orders.journal").toFile();
+		try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(file))) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream record = new DataOutputStream(bytes);
+			record.writeByte(Journal.ADD);
+			Codecs.writeString(record, "0000000000001");
+			StringTable noTable = new StringTable(); // journal ko co bang chuoi
+			noTable.writeRef(record, "C1");
+			noTable.writeRef(record, "PW001");
+			Codecs.writeVarInt(record, 2);
+			record.writeLong(Dates.toMillis(20000));
+			record.writeDouble(2_000_000.0);
+			dos.writeInt(bytes.size());
+			dos.write(bytes.toByteArray());
+		}
+
+		Journal<Order> journal = new Journal<>(path, Codecs.ORDER, 1000);
+		List<Journal.Entry<Order>> entries = journal.readAll();
+		assertEquals(1, entries.size());
+		assertEquals(20000, entries.get(0).getData().getEpochDay());
+		assertEquals(2_000_000L, entries.get(0).getData().getTotalVnd());
+
+		// ghi tiep: file cu thanh segment, ban ghi moi vao file moi co header
+		journal.append(Journal.ADD, new Order("0000000000002", "C2", "PW001", 1, Order.NO_DATE, 1_000_000L));
+		assertTrue(dir.resolve("orders.journal.1").toFile().exists());
+		entries = new Journal<>(path, Codecs.ORDER, 1000).readAll();
+		assertEquals(2, entries.size());
+		assertEquals(20000, entries.get(0).getData().getEpochDay());
+		assertEquals(Order.NO_DATE, entries.get(1).getData().getEpochDay());
+	}
+
+	@Test
+	void leftoverSegmentIsReplayedBeforeCurrentFile() {
+		Journal<Customer> journal = new Journal<>(snapshot(), Codecs.CUSTOMER, 1000);
+		journal.append(Journal.ADD, customer(1));
+		// segment .1 con sot lai (tat may khi dang compact)
+		assertTrue(dir.resolve("customers.journal").toFile().renameTo(dir.resolve("customers.journal.1").toFile()));
+
+		Journal<Customer> reopened = new Journal<>(snapshot(), Codecs.CUSTOMER, 1000);
+		reopened.append(Journal.ADD, customer(2));
+		List<Journal.Entry<Customer>> entries = reopened.readAll();
+		assertEquals(2, entries.size());
+		assertEquals("C1", entries.get(0).getData().getId());
+		assertEquals("C2", entries.get(1).getData().getId());
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OrderCodeGenerator: ma ko trung khi nhieu thread cung sinh, tang dan, observe day ma ve sau.
+ */
+class OrderCodeGeneratorTest {
+	@Test
+	void codesAreUniqueAcrossThreads() throws Exception {
+		OrderCodeGenerator gen = new OrderCodeGenerator(1);
+		int threads = 8;
+		int perThread = 50_000; // > 4096/ms: so thu tu tran sang ms sau
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Callable<String[]>> tasks = IntStream.range(0, threads).<Callable<String[]>>mapToObj(t -> () -> {
+				start.await();
+				String[] codes = new String[perThread];
+				for (int i = 0; i < perThread; i++) codes[i] = gen.nextCode();
+				return codes;
+			}).toList();
+			List<Future<String[]>> results = tasks.stream().map(pool::submit).toList();
+			start.countDown();
+
+			Set<String> all = new HashSet<>();
+			for (Future<String[]> f : results) {
+				String[] codes = f.get();
+				for (int i = 0; i < codes.length; i++) {
+					assertTrue(all.add(codes[i]), "trung ma " + codes[i]);
+					// moi thread thay ma tang dan
+					if (i > 0) assertTrue(codes[i].compareTo(codes[i - 1]) > 0);
+				}
+			}
+			assertEquals(threads * perThread, all.size());
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void codeRoundTripsAndKeepsNode() {
+		OrderCodeGenerator gen = new OrderCodeGenerator(1023);
+		long id = gen.nextId();
+		String code = OrderCodeGenerator.toCode(id);
+		assertEquals(OrderCodeGenerator.CODE_LENGTH, code.length());
+		assertEquals(id, OrderCodeGenerator.parseCode(code));
+		assertEquals(1023, (id >>> 12) & 1023);
+		assertEquals(-1, OrderCodeGenerator.parseCode("20240101120000")); // ma cu 14 so
+		assertThrows(IllegalArgumentException.class, () -> new OrderCodeGenerator(1024));
+	}
+
+	@Test
+	void observedCodeFromTheFutureKeepsCodesIncreasing() {
+		OrderCodeGenerator gen = new OrderCodeGenerator(0);
+		// ma cua 1 ngay trong tuong lai (vd: dong ho may bi chinh lui)
+		long future = (gen.nextId() >>> 22) + 86_400_000L;
+		String seen = OrderCodeGenerator.toCode(future << 22 | 7);
+		gen.observe(seen);
+		assertTrue(gen.nextCode().compareTo(seen) > 0);
+	}
+}
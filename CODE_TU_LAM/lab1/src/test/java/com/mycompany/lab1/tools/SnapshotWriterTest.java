@@ -0,0 +1,120 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import com.mycompany.lab1.model.Customer;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnapshotWriter: gop cac lan luu dang cho, ghi loi thi file cu con nguyen.
+ */
+class SnapshotWriterTest {
+	@TempDir
+	Path dir;
+
+	private static Customer customer(int i) {
+		return new Customer("C" + i, "Nguyen Van " + i, "0900000" + i, "kh" + i + "@mail.vn");
+	}
+
+	private List<String> ids(String path) {
+		return FileUtils.readFromFile(path, Codecs.CUSTOMER).stream().map(Customer::getId).toList();
+	}
+
+	// giu thread ghi nen ban cho toi khi release() (cac lan ghi khac phai xep hang)
+	private CountDownLatch blockWriterThread() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Iterable<Customer> slow = () -> {
+			started.countDown();
+			try {
+				release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return List.<Customer>of().iterator();
+		};
+		new SnapshotWriter<>(dir.resolve("blocker.dat").toString(), Codecs.CUSTOMER).write(slow, null);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		return release;
+	}
+
+	@Test
+	void pendingWritesAreCoalesced() throws Exception {
+		String path = dir.resolve("customers.dat").toString();
+		SnapshotWriter<Customer> writer = new SnapshotWriter<>(path, Codecs.CUSTOMER);
+		AtomicInteger firstCommits = new AtomicInteger();
+		AtomicInteger lastCommits = new AtomicInteger();
+
+		CountDownLatch release = blockWriterThread();
+		CompletableFuture<Boolean> first = writer.write(List.of(customer(1)), firstCommits::incrementAndGet);
+		CompletableFuture<Boolean> last = writer.write(List.of(customer(1), customer(2)), lastCommits::incrementAndGet);
+		assertSame(first, last);
+		release.countDown();
+
+		assertTrue(last.get(5, TimeUnit.SECONDS));
+		assertEquals(0, firstCommits.get());
+		assertEquals(1, lastCommits.get());
+		assertEquals(List.of("C1", "C2"), ids(path)); // chi ghi ban moi nhat
+	}
+
+	@Test
+	void failedWriteKeepsOldFile() throws Exception {
+		String path = dir.resolve("customers.dat").toString();
+		SnapshotWriter<Customer> writer = new SnapshotWriter<>(path, Codecs.CUSTOMER);
+		assertTrue(writer.write(List.of(customer(1)), null).get(5, TimeUnit.SECONDS));
+
+		// loi giua luc ghi (lan duyet thu 2, file .tmp dang ghi do)
+		AtomicInteger passes = new AtomicInteger();
+		Iterable<Customer> broken = () -> {
+			if (passes.incrementAndGet() == 1) return List.of(customer(1), customer(2)).iterator();
+			Iterator<Customer> it = List.of(customer(1)).iterator();
+			return new Iterator<Customer>() {
+				@Override
+				public boolean hasNext() {
+					return true;
+				}
+
+				@Override
+				public Customer next() {
+					if (it.hasNext()) return it.next();
+					throw new UncheckedIOException(new IOException("dia day"));
+				}
+			};
+		};
+		AtomicInteger commits = new AtomicInteger();
+		assertFalse(writer.write(broken, commits::incrementAndGet).get(5, TimeUnit.SECONDS));
+
+		assertEquals(0, commits.get());
+		assertEquals(List.of("C1"), ids(path));
+		assertFalse(new File(path + ".tmp").exists());
+	}
+
+	@Test
+	void flushAllWaitsForQueuedWrites() throws Exception {
+		String path = dir.resolve("customers.dat").toString();
+		SnapshotWriter<Customer> writer = new SnapshotWriter<>(path, Codecs.CUSTOMER);
+		CountDownLatch release = blockWriterThread();
+		CompletableFuture<Boolean> done = writer.write(List.of(customer(1)), null);
+		release.countDown();
+
+		SnapshotWriter.flushAll();
+		assertTrue(done.isDone());
+		assertEquals(List.of("C1"), ids(path));
+	}
+}
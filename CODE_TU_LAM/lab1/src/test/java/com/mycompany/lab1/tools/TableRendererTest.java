@@ -0,0 +1,78 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.lab1.tools;
+
+import com.mycompany.lab1.model.Customer;
+import com.mycompany.lab1.model.Order;
+import com.mycompany.lab1.model.SetMenu;
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TableRenderer: ten cot sap xep ko phu thuoc Locale may, gia tri null xep cuoi, bang thuc don.
+ */
+class TableRendererTest {
+	private static String[] lines(StringWriter out) {
+		return out.toString().split("\n");
+	}
+
+	@Test
+	void sortKeysIgnoreDefaultLocale() {
+		Locale old = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr")); // "ID".toLowerCase() = "ıd"
+		try {
+			TableRenderer<Customer> table = TableRenderer.forCustomers(new StringWriter());
+			assertTrue(table.hasSortKey("ID"));
+			assertEquals(1, table.render(Stream.of(new Customer("C1", "A", "0912345678", "a@x.com")), "ID", 0, 1));
+		}
+		finally {
+			Locale.setDefault(old);
+		}
+	}
+
+	@Test
+	void nullValuesSortLast() {
+		StringWriter out = new StringWriter();
+		TableRenderer.forCustomers(out).render(Stream.of(
+				new Customer("C2", null, "0912345678", "b@x.com"),
+				new Customer("C1", "binh", "0912345678", "a@x.com"),
+				new Customer("C3", "An", "0912345678", "c@x.com")), "name", 0, 1);
+		String[] rows = lines(out);
+		assertTrue(rows[2].startsWith("| C3 "), out.toString());
+		assertTrue(rows[3].startsWith("| C1 "), out.toString());
+		assertTrue(rows[4].startsWith("| C2 "), out.toString());
+	}
+
+	@Test
+	void menuKeyIsCaseInsensitive() {
+		StringWriter out = new StringWriter();
+		TableRenderer.forOrders(out).render(Stream.of(
+				new Order("2", "C1", "pw002", 1, 20000, 1L),
+				new Order("1", "C1", "PW001", 1, 20000, 1L),
+				new Order("3", "C1", null, 1, 20000, 1L)), "menu", 0, 1);
+		String[] rows = lines(out);
+		assertTrue(rows[2].startsWith("| 1 "), out.toString());
+		assertTrue(rows[3].startsWith("| 2 "), out.toString());
+		assertTrue(rows[4].startsWith("| 3 "), out.toString());
+	}
+
+	@Test
+	void menusRenderAsTable() {
+		StringWriter out = new StringWriter();
+		int total = TableRenderer.forMenus(out).render(Stream.of(
+				new SetMenu("PW001", "Tiec 1", 1_500_000, "Mon 1"),
+				new SetMenu("PW002", "Tiec 2", 900_000, "Mon 2")), "price", 0, 1);
+		String[] rows = lines(out);
+		assertEquals(2, total);
+		assertTrue(rows[0].startsWith("| ID "), out.toString());
+		assertTrue(rows[2].startsWith("| PW002 ") && rows[2].endsWith("         900000 |"), out.toString());
+		assertTrue(rows[3].startsWith("| PW001 ") && rows[3].endsWith("        1500000 |"), out.toString());
+		assertEquals("Tong: 2 dong", rows[4]);
+	}
+}